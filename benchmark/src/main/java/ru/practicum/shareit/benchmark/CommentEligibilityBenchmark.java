@@ -0,0 +1,163 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.ArchivedBookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validation.ExistenceCache;
+import ru.practicum.shareit.validation.ValidationService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comment eligibility on an item with {@code size} finished bookings spread over a hundred bookers, against an
+ * in-memory H2 database migrated with the server's schema. {@link #collectionScan()} reads the whole booking
+ * history of the item and searches it, as the initialized {@code Item.bookings} collection did;
+ * {@link #existsQuery()} runs {@link BookingRepository#existsFinished} and {@link #cachedLookup()} answers a
+ * repeated check from the existence cache. The JDBC baseline skips entity hydration, so it flatters the old path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommentEligibilityBenchmark {
+    private static final long ITEM_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    private Connection connection;
+    private PreparedStatement history;
+    private PreparedStatement exists;
+    private ValidationService validationService;
+
+    @Setup
+    public void setUp() throws Exception {
+        String url = "jdbc:h2:mem:comment-eligibility-" + size + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(url, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("insert into users (id, name, email) "
+                    + "select x, 'user ' || x, 'user' || x || '@shareit.ru' from system_range(1, 101)");
+            statement.execute("insert into items (id, name, description, owner_id, is_available) "
+                    + "values (1, 'Drill', 'Drill', 1, true)");
+            statement.execute("insert into bookings (id, item_id, booker_id, start_time, end_time, status) "
+                    + "select x, 1, mod(x, 100) + 2, "
+                    + "timestamp '2020-01-01 00:00:00' + x * interval '1' hour, "
+                    + "timestamp '2020-01-01 00:00:00' + (x + 1) * interval '1' hour, 'APPROVED' "
+                    + "from system_range(1, " + size + ")");
+        }
+        history = connection.prepareStatement(
+                "select id, booker_id, start_time, end_time, status from bookings where item_id = ?");
+        exists = connection.prepareStatement(existsFinishedSql());
+
+        BookingRepository bookingRepository = Fixtures.repository(BookingRepository.class, (method, args) ->
+                "existsFinished".equals(method) ? existsFinished((Long) args[0], (Long) args[1]) : null);
+        validationService = new ValidationService(
+                Fixtures.repository(ItemRepository.class, (method, args) -> null),
+                Fixtures.repository(UserRepository.class, (method, args) -> null),
+                bookingRepository,
+                Fixtures.repository(ArchivedBookingRepository.class, (method, args) -> null),
+                null,
+                new ExistenceCache(new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(10)));
+        if (!validationService.hasFinishedBooking(BOOKER_ID, ITEM_ID)) {
+            throw new IllegalStateException("Booker " + BOOKER_ID + " has no finished booking");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public boolean collectionScan() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        List<Row> rows = new ArrayList<>();
+        history.setLong(1, ITEM_ID);
+        try (ResultSet resultSet = history.executeQuery()) {
+            while (resultSet.next()) {
+                rows.add(new Row(resultSet.getLong(1), resultSet.getLong(2),
+                        resultSet.getTimestamp(3).toLocalDateTime(), resultSet.getTimestamp(4).toLocalDateTime(),
+                        resultSet.getString(5)));
+            }
+        }
+        return rows.stream().anyMatch(row -> row.bookerId == BOOKER_ID && row.end.isBefore(now));
+    }
+
+    @Benchmark
+    public boolean existsQuery() throws SQLException {
+        return existsFinished(ITEM_ID, BOOKER_ID);
+    }
+
+    @Benchmark
+    public boolean cachedLookup() {
+        return validationService.hasFinishedBooking(BOOKER_ID, ITEM_ID);
+    }
+
+    private boolean existsFinished(Long itemId, Long bookerId) {
+        try {
+            exists.setLong(1, itemId);
+            exists.setLong(2, bookerId);
+            exists.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            try (ResultSet resultSet = exists.executeQuery()) {
+                resultSet.next();
+                return resultSet.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The repository's own native query, with its named parameters turned into H2 indexed ones.
+     */
+    private static String existsFinishedSql() throws NoSuchMethodException {
+        String sql = BookingRepository.class
+                .getMethod("existsFinished", Long.class, Long.class, LocalDateTime.class)
+                .getAnnotation(Query.class)
+                .value();
+        return sql.replace(":itemId", "?1").replace(":bookerId", "?2").replace(":before", "?3");
+    }
+
+    private static class Row {
+        private final long id;
+        private final long bookerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final String status;
+
+        Row(long id, long bookerId, LocalDateTime start, LocalDateTime end, String status) {
+            this.id = id;
+            this.bookerId = bookerId;
+            this.start = start;
+            this.end = end;
+            this.status = status;
+        }
+    }
+}
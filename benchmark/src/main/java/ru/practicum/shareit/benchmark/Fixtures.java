@@ -0,0 +1,138 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.dto.ItemForResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Deterministic object graphs for the benchmarks. Booking ranges are one day long, two days apart,
+ * centred on {@link #NOW}, so half of them are in the past and every third one is approved.
+ */
+@UtilityClass
+public class Fixtures {
+    public static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+    public User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@shareit.ru")
+                .build();
+    }
+
+    public Item item(long id, User owner) {
+        return Item.builder()
+                .id(id)
+                .name("Item " + id)
+                .description("Description of item " + id)
+                .available(true)
+                .owner(owner)
+                .bookings(new HashSet<>())
+                .comments(new HashSet<>())
+                .build();
+    }
+
+    public Item itemWithBookings(int bookings, int comments) {
+        User owner = user(1L);
+        User booker = user(2L);
+        Item item = item(1L, owner);
+        item.setBookings(bookings(item, booker, bookings));
+        Set<Comment> itemComments = new HashSet<>();
+        for (long i = 1; i <= comments; i++) {
+            itemComments.add(Comment.builder()
+                    .id(i)
+                    .text("Comment " + i)
+                    .item(item)
+                    .author(booker)
+                    .created(NOW.minusDays(i))
+                    .build());
+        }
+        item.setComments(itemComments);
+        return item;
+    }
+
+    public Set<Booking> bookings(Item item, User booker, int count) {
+        Set<Booking> bookings = new HashSet<>();
+        LocalDateTime first = NOW.minusDays(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = first.plusDays(2L * i);
+            bookings.add(Booking.builder()
+                    .id((long) i + 1)
+                    .start(start)
+                    .end(start.plusDays(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(i % 3 == 0 ? Status.APPROVED : Status.WAITING)
+                    .build());
+        }
+        return bookings;
+    }
+
+    public ItemRequest itemRequest(int items) {
+        User requester = user(3L);
+        User owner = user(1L);
+        List<Item> requestItems = new ArrayList<>();
+        for (long i = 1; i <= items; i++) {
+            Item item = item(i, owner);
+            item.setRequestId(1L);
+            requestItems.add(item);
+        }
+        return ItemRequest.builder()
+                .id(1L)
+                .description("Need a drill")
+                .requester(requester)
+                .created(NOW)
+                .items(requestItems)
+                .build();
+    }
+
+    public List<ItemForResponseDto> itemDtos(int size) {
+        List<ItemForResponseDto> items = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            items.add(ItemForResponseDto.builder()
+                    .id(i)
+                    .name("Item " + i)
+                    .description("Description of item " + i)
+                    .available(true)
+                    .lastBooking(BookingForItemDto.builder().id(i * 2).bookerId(2L).build())
+                    .nextBooking(BookingForItemDto.builder().id(i * 2 + 1).bookerId(2L).build())
+                    .comments(List.of(CommentDto.builder()
+                            .id(i)
+                            .text("Comment " + i)
+                            .authorName("User 2")
+                            .created(NOW)
+                            .build()))
+                    .build());
+        }
+        return items;
+    }
+
+    /**
+     * Repository stand-in answering only the named query methods; anything else fails loudly.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T repository(Class<T> type, BiFunction<String, Object[], Object> queries) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = queries.apply(method.getName(), args);
+            if (result == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return result;
+        });
+    }
+}
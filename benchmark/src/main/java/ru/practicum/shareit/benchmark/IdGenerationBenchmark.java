@@ -0,0 +1,118 @@
+package ru.practicum.shareit.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists {@value #ROWS} items per transaction through JPA against an in-memory H2 database, reported as items
+ * per second. {@code identity} migrates the schema up to the identity columns and maps {@link Item} back to
+ * {@code GenerationType.IDENTITY} with {@code identity-ids-orm.xml}, as before the switch; {@code pooled} runs the
+ * sequence migration and the entity's own mapping. Both use the server's batch settings, which identity ids
+ * cannot take advantage of because every persist has to insert at once to learn its id.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(IdGenerationBenchmark.ROWS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+    static final int ROWS = 1000;
+
+    @Param({"identity", "pooled"})
+    public String ids;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:id-generation-" + ids + ";MODE=PostgreSQL", "sa", "", true);
+        boolean identity = "identity".equals(ids);
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .target(identity ? "9" : "latest")
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@shareit.ru')");
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("ru.practicum.shareit");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.PostgreSQL10Dialect",
+                "hibernate.id.sequence.increment_size_mismatch_strategy", "fix",
+                "hibernate.jdbc.batch_size", "50",
+                "hibernate.order_inserts", "true"));
+        if (identity) {
+            factory.setMappingResources("identity-ids-orm.xml");
+        }
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        IdentifierGenerator generator = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMetamodel()
+                .entityPersister(Item.class)
+                .getIdentifierGenerator();
+        Class<?> expected = identity ? IdentityGenerator.class : SequenceStyleGenerator.class;
+        if (!expected.isInstance(generator)) {
+            throw new IllegalStateException("Item ids use " + generator.getClass().getName() + ", not " + expected);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteItems() {
+        jdbcTemplate.update("delete from items");
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+        jdbcTemplate.execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public long persistItems() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            User owner = entityManager.getReference(User.class, 1L);
+            Item last = null;
+            for (int i = 0; i < ROWS; i++) {
+                last = Item.builder()
+                        .name("item " + i)
+                        .description("Imported item " + i)
+                        .available(true)
+                        .owner(owner)
+                        .build();
+                entityManager.persist(last);
+            }
+            entityManager.getTransaction().commit();
+            return last.getId();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingForResponse;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemForResponseDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestForResponse;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    private Item item;
+    private Booking booking;
+    private ItemRequest itemRequest;
+
+    @Setup
+    public void setUp() {
+        item = Fixtures.itemWithBookings(size, 10);
+        booking = item.getBookings().iterator().next();
+        itemRequest = Fixtures.itemRequest(size);
+    }
+
+    @Benchmark
+    public ItemForResponseDto itemWithBookings() {
+        return ItemMapper.toItemWIthBookingDto(item);
+    }
+
+    @Benchmark
+    public BookingForResponse bookingForResponse() {
+        return BookingMapper.toGetBookingForResponse(booking);
+    }
+
+    @Benchmark
+    public ItemRequestForResponse itemRequestForResponse() {
+        return ItemRequestMapper.toItemRequestForResponse(itemRequest);
+    }
+}
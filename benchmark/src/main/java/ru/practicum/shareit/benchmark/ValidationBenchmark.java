@@ -0,0 +1,79 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validation.ExistenceCache;
+import ru.practicum.shareit.validation.ValidationService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking validation on an item with {@code size} existing bookings, with the requested range placed after
+ * all of them so that no check can stop early. {@link #linearScan()} is the per-booking loop the interval
+ * index replaced, kept as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    private ValidationService validationService;
+    private Item item;
+    private User booker;
+    private CreateBookingDto request;
+
+    @Setup
+    public void setUp() {
+        item = Fixtures.itemWithBookings(size, 0);
+        booker = Fixtures.user(2L);
+        request = CreateBookingDto.builder()
+                .itemId(item.getId())
+                .start(Fixtures.NOW.plusDays(size + 1L))
+                .end(Fixtures.NOW.plusDays(size + 2L))
+                .build();
+
+        BookingRepository bookingRepository = Fixtures.repository(BookingRepository.class, (method, args) ->
+                "findBlockingBookings".equals(method) ? new ArrayList<>(item.getBookings()) : null);
+        validationService = new ValidationService(
+                Fixtures.repository(ItemRepository.class, (method, args) -> null),
+                Fixtures.repository(UserRepository.class, (method, args) -> null),
+                bookingRepository,
+                Fixtures.repository(ArchivedBookingRepository.class, (method, args) -> null),
+                new ItemAvailabilityIndex(bookingRepository, 10_000),
+                new ExistenceCache(new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(10)));
+        validationService.validateBooking(request, item, booker);
+    }
+
+    @Benchmark
+    public CreateBookingDto intervalIndex() {
+        validationService.validateBooking(request, item, booker);
+        return request;
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        for (Booking b : item.getBookings()) {
+            if (!(b.getEnd().isBefore(request.getStart()) || b.getStart().isAfter(request.getStart()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,44 +2,90 @@ package ru.practicum.gate.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClientRequest;
 import ru.practicum.gate.booking.dto.CreateBookingDto;
+import reactor.core.publisher.Mono;
 import ru.practicum.gate.client.BaseClient;
+import ru.practicum.gate.client.ClientProperties;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
+import static ru.practicum.gate.constants.Constants.USER_ID_HEADER;
+
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final Duration streamReadTimeout;
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ClientProperties properties) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
                         .build()
         );
+        this.streamReadTimeout = properties.getStreamReadTimeout();
+    }
+
+    /**
+     * Relays the server's booking event stream without buffering it. The stream is only quiet between
+     * server heartbeats, so it gets its own read timeout instead of the one for regular requests.
+     * Error statuses surface as {@link org.springframework.web.reactive.function.client.WebClientResponseException}
+     * before any event is written.
+     */
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> streamEvents(long userId) {
+        return rest.get()
+                .uri("/events")
+                .header(USER_ID_HEADER, String.valueOf(userId))
+                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON)
+                .httpRequest(request -> request.<HttpClientRequest>getNativeRequest()
+                        .responseTimeout(streamReadTimeout))
+                .retrieve()
+                .toEntityFlux(EVENT_TYPE);
     }
 
-    public ResponseEntity<Object> createBooking(long bookerId, CreateBookingDto requestDto) {
+    public Mono<ResponseEntity<Object>> createBooking(long bookerId, CreateBookingDto requestDto) {
         return post("", bookerId, requestDto);
     }
 
-    public ResponseEntity<Object> updateBooking(Long ownerId, Long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(Long ownerId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingByOwner(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> updateBookings(Long ownerId, List<Long> bookingIds, Boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("?approved={approved}", ownerId, parameters, bookingIds);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingByOwner(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllUserBookings(long userId, String state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllUserBookings(long userId, String state, Integer from, Integer size,
+                                                     String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state,
+                    "size", size,
+                    "after", after
+            );
+            return get("?state={state}&size={size}&after={after}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
@@ -48,7 +94,16 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllOwnerBookings(long userId, String state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllOwnerBookings(long userId, String state, Integer from, Integer size,
+                                                     String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state,
+                    "size", size,
+                    "after", after
+            );
+            return get("/owner?state={state}&size={size}&after={after}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
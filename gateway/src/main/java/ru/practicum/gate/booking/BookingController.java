@@ -2,18 +2,26 @@ package ru.practicum.gate.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.gate.booking.dto.CreateBookingDto;
 import ru.practicum.gate.constants.Constants;
 import ru.practicum.gate.exception.ValidationException;
 import ru.practicum.gate.validation.CreateObject;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -21,11 +29,13 @@ import java.time.LocalDateTime;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader(value = Constants.USER_ID_HEADER) Long bookerId,
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader(value = Constants.USER_ID_HEADER) Long bookerId,
                                                 @RequestBody @Validated(CreateObject.class)
                                                 @Valid CreateBookingDto bookingDto) {
         log.info("Creating booking");
@@ -34,38 +44,56 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@RequestHeader(Constants.USER_ID_HEADER) Long ownerId,
+    public Mono<ResponseEntity<Object>> updateBooking(@RequestHeader(Constants.USER_ID_HEADER) Long ownerId,
                                                 @PathVariable Long bookingId,
                                                 @RequestParam Boolean approved) {
         log.info("Updating booking");
         return bookingClient.updateBooking(ownerId, bookingId, approved);
     }
 
+    @PatchMapping
+    public Mono<ResponseEntity<Object>> updateBookings(@RequestHeader(Constants.USER_ID_HEADER) Long ownerId,
+                                                       @RequestParam Boolean approved,
+                                                       @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                       List<@NotNull @Positive Long> bookingIds) {
+        log.info("Updating {} bookings", bookingIds.size());
+        return bookingClient.updateBookings(ownerId, bookingIds, approved);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> subscribeToEvents(
+            @RequestHeader(Constants.USER_ID_HEADER) Long userId) {
+        log.info("Subscribing to booking events");
+        return bookingClient.streamEvents(userId);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingByOwner(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> getBookingByOwner(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
                                                     @PathVariable Long bookingId) {
         log.info("Getting Booking by Owner");
         return bookingClient.getBookingByOwner(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUserBookings(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> getAllUserBookings(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
                                                      @RequestParam(value = "state",
                                                              defaultValue = "ALL") String state,
                                                      @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+                                                     @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+                                                     @RequestParam(name = "after", required = false) String after) {
         log.info("Getting Booking by User");
-        return bookingClient.getAllUserBookings(userId, state, from, size);
+        return bookingClient.getAllUserBookings(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllOwnerBookings(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> getAllOwnerBookings(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
                                                       @RequestParam(value = "state", defaultValue = "ALL")
                                                       String state,
                                                       @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                      @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+                                                      @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+                                                      @RequestParam(name = "after", required = false) String after) {
         log.info("Getting All Bookings by Owner");
-        return bookingClient.getAllOwnerBookings(userId, state, from, size);
+        return bookingClient.getAllOwnerBookings(userId, state, from, size, after);
     }
 
     private void checkStartAndEndTimes(CreateBookingDto bookingDto) {
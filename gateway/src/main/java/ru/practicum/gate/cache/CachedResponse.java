@@ -0,0 +1,42 @@
+package ru.practicum.gate.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+@Getter
+@RequiredArgsConstructor
+class CachedResponse {
+    private final HttpStatus status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final Instant freshUntil;
+
+    boolean isFresh(Instant now) {
+        return now.isBefore(freshUntil);
+    }
+
+    String getETag() {
+        return headers.getETag();
+    }
+
+    CachedResponse refreshedUntil(Instant freshUntil) {
+        return new CachedResponse(status, headers, body, freshUntil);
+    }
+
+    ClientResponse toClientResponse(String cacheStatus) {
+        return ClientResponse.create(status)
+                .headers(target -> {
+                    target.addAll(headers);
+                    target.set(ResponseCacheFilter.CACHE_STATUS_HEADER, cacheStatus);
+                })
+                .body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))))
+                .build();
+    }
+}
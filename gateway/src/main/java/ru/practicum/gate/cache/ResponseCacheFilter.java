@@ -0,0 +1,152 @@
+package ru.practicum.gate.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.gate.constants.Constants.USER_ID_HEADER;
+
+/**
+ * Caches single-resource reads ({@code GET /items/{id}}, {@code /users/{id}}, {@code /requests/{id}})
+ * per path, query and user. Fresh entries are served without calling the server; stale ones are
+ * revalidated with {@code If-None-Match}. Successful writes evict the written resource and the routes
+ * whose responses embed it.
+ */
+public class ResponseCacheFilter implements ExchangeFilterFunction {
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Map<String, List<String>> DEPENDENT_ROUTES = Map.of(
+            "bookings", List.of("items"),
+            "items", List.of("requests"),
+            "users", List.of("items", "requests"));
+
+    private final Cache<CacheKey, CachedResponse> cache;
+    private final Map<String, Duration> routes;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.routes = Map.copyOf(properties.getRoutes());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getMaxStale().plus(longestTtl()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        Resource resource = Resource.of(request.url());
+        if (resource == null) {
+            return next.exchange(request);
+        }
+        if (request.method() == HttpMethod.GET) {
+            Duration ttl = resource.getId() != null ? routes.get(resource.getRoute()) : null;
+            return ttl != null ? cachedGet(request, next, resource, ttl) : next.exchange(request);
+        }
+        return next.exchange(request)
+                .doOnNext(response -> {
+                    if (response.statusCode().is2xxSuccessful()) {
+                        invalidate(resource);
+                    }
+                });
+    }
+
+    private Mono<ClientResponse> cachedGet(ClientRequest request, ExchangeFunction next, Resource resource,
+                                           Duration ttl) {
+        CacheKey key = new CacheKey(resource.getRoute(), resource.getId(), request.url().toString(),
+                request.headers().getFirst(USER_ID_HEADER));
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && cached.isFresh(Instant.now())) {
+            return Mono.just(cached.toClientResponse("HIT"));
+        }
+
+        ClientRequest outgoing = cached != null && cached.getETag() != null
+                ? ClientRequest.from(request).headers(headers -> headers.setIfNoneMatch(cached.getETag())).build()
+                : request;
+        long generation = invalidations.get();
+
+        return next.exchange(outgoing).flatMap(response -> {
+            if (response.statusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+                CachedResponse refreshed = cached.refreshedUntil(Instant.now().plus(ttl));
+                store(key, refreshed, generation);
+                return response.releaseBody().thenReturn(refreshed.toClientResponse("REVALIDATED"));
+            }
+            if (response.statusCode() != HttpStatus.OK) {
+                return Mono.just(response);
+            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(response.headers().asHttpHeaders());
+            return response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(new byte[0])
+                    .map(body -> {
+                        CachedResponse fresh = new CachedResponse(HttpStatus.OK, headers, body,
+                                Instant.now().plus(ttl));
+                        store(key, fresh, generation);
+                        return fresh.toClientResponse("MISS");
+                    });
+        });
+    }
+
+    private void store(CacheKey key, CachedResponse response, long generation) {
+        if (invalidations.get() == generation) {
+            cache.put(key, response);
+        }
+    }
+
+    private void invalidate(Resource resource) {
+        invalidations.incrementAndGet();
+        List<String> dependents = DEPENDENT_ROUTES.getOrDefault(resource.getRoute(), List.of());
+        cache.asMap().keySet().removeIf(key -> dependents.contains(key.getRoute())
+                || (key.getRoute().equals(resource.getRoute()) && Objects.equals(key.getId(), resource.getId())));
+    }
+
+    private Duration longestTtl() {
+        return routes.values().stream().max(Duration::compareTo).orElse(Duration.ZERO);
+    }
+
+    @Value
+    static class CacheKey {
+        String route;
+        Long id;
+        String uri;
+        String userId;
+    }
+
+    @Value
+    static class Resource {
+        String route;
+        Long id;
+
+        static Resource of(URI uri) {
+            String path = uri.getPath();
+            if (path == null) {
+                return null;
+            }
+            String[] segments = path.replaceFirst("^/+", "").split("/");
+            if (segments[0].isEmpty()) {
+                return null;
+            }
+            Long id = segments.length > 1 && segments[1].matches("\\d+") ? Long.valueOf(segments[1]) : null;
+            return new Resource(segments[0], id);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.gate.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private long maxEntries = 10_000;
+    /**
+     * How long an entry is kept for conditional revalidation after it stops being fresh.
+     */
+    private Duration maxStale = Duration.ofMinutes(10);
+    /**
+     * Freshness per resource route, e.g. {@code items=30s}. Only single-resource reads on these routes are cached.
+     */
+    private Map<String, Duration> routes = new HashMap<>(Map.of(
+            "items", Duration.ofSeconds(30),
+            "users", Duration.ofSeconds(60),
+            "requests", Duration.ofSeconds(30)));
+}
@@ -0,0 +1,21 @@
+package ru.practicum.gate.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ClientProperties {
+    private int maxConnections = 200;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration streamReadTimeout = Duration.ofSeconds(60);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private boolean keepAlive = true;
+    private boolean http2 = false;
+}
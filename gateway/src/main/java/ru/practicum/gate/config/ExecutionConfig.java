@@ -0,0 +1,33 @@
+package ru.practicum.gate.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.common.VirtualThreads;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual-thread execution mode, enabled with {@code shareit.execution.mode=virtual}.
+ * Outbound calls to the server already run on the non-blocking WebClient, so only request handling moves.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.execution", name = "mode", havingValue = "virtual")
+@Slf4j
+public class ExecutionConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        log.info("Handling requests on virtual threads");
+        return VirtualThreads.newPerTaskExecutor("http-virtual-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandler(
+            ExecutorService requestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+}
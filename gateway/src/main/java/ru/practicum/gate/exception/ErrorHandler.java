@@ -2,9 +2,12 @@ package ru.practicum.gate.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
@@ -56,6 +59,14 @@ public class ErrorHandler {
     }
 
 
+    @ExceptionHandler(WebClientResponseException.class)
+    public ResponseEntity<byte[]> handleServerResponse(WebClientResponseException e) {
+        log.debug("Получен статус {} от сервера. Причина: {}", e.getRawStatusCode(), e.getMessage());
+        return ResponseEntity.status(e.getRawStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(e.getResponseBodyAsByteArray());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(Throwable e) {
@@ -1,58 +1,76 @@
 package ru.practicum.gate.item;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.gate.client.BaseClient;
 import ru.practicum.gate.item.dto.CreateCommentDto;
 import ru.practicum.gate.item.dto.CreateUpdateItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.StringJoiner;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> createItem(Long ownerId, CreateUpdateItemDto createUpdateItemDto) {
+    public Mono<ResponseEntity<Object>> createItem(Long ownerId, CreateUpdateItemDto createUpdateItemDto) {
         return post("", ownerId, createUpdateItemDto);
     }
 
-    public ResponseEntity<Object> getAllItems(Long ownerId) {
+    public Mono<ResponseEntity<Object>> getAllItems(Long ownerId) {
         return get("/", ownerId);
     }
 
-    public ResponseEntity<Object> getItemById(Long ownerId, Long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(Long ownerId, Long itemId) {
         return get("/" + itemId, ownerId);
     }
 
-    public ResponseEntity<Object> updateItem(long ownerId, long itemId, CreateUpdateItemDto createUpdateItemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(long ownerId, long itemId, CreateUpdateItemDto createUpdateItemDto) {
         return patch("/" + itemId, ownerId, createUpdateItemDto);
     }
 
-    public ResponseEntity<Object> searchItem(Long userId, String text) {
+    public Mono<ResponseEntity<Object>> searchItem(Long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "from", from,
+                "size", size
         );
-        return get("/search?text={text}", userId, parameters);
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(Long itemId, Long userId, CreateCommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> createComment(Long itemId, Long userId, CreateCommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public void deleteItem(Long userId, Long itemId) {
-        delete("/" + userId, itemId);
+    public Mono<ResponseEntity<Object>> getAvailability(Long userId, Long itemId, LocalDateTime from,
+                                                        LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        if (from != null) {
+            parameters.put("from", from);
+            query.add("from={from}");
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            query.add("to={to}");
+        }
+        return get("/" + itemId + "/availability" + query, userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> deleteItem(Long userId, Long itemId) {
+        return delete("/" + itemId, userId);
     }
 }
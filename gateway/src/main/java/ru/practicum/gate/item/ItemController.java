@@ -2,16 +2,22 @@ package ru.practicum.gate.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.gate.constants.Constants;
+import ru.practicum.gate.exception.NotValidDateException;
 import ru.practicum.gate.validation.CreateObject;
 import ru.practicum.gate.validation.UpdateObject;
 import ru.practicum.gate.item.dto.CreateCommentDto;
 import ru.practicum.gate.item.dto.CreateUpdateItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 
 @RestController
@@ -24,20 +30,20 @@ public class ItemController {
 
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByUserId(@RequestHeader(Constants.USER_ID_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getAllItemsByUserId(@RequestHeader(Constants.USER_ID_HEADER) Long userId) {
         log.info("Getting All Items by User ID: {}", userId);
         return itemClient.getAllItems(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(value = Constants.USER_ID_HEADER) Long ownerId,
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(value = Constants.USER_ID_HEADER) Long ownerId,
                                          @RequestBody @Valid @Validated(CreateObject.class) CreateUpdateItemDto item) {
         log.info("Creating Item");
         return itemClient.createItem(ownerId, item);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(value = Constants.USER_ID_HEADER) Long ownerId,
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(value = Constants.USER_ID_HEADER) Long ownerId,
                                          @PathVariable Long itemId, @Validated(UpdateObject.class)
                                          @RequestBody CreateUpdateItemDto item) {
         log.info("Updating Item: {}", itemId);
@@ -45,29 +51,47 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(value = Constants.USER_ID_HEADER) Long ownerId,
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader(value = Constants.USER_ID_HEADER) Long ownerId,
                                           @PathVariable Long itemId) {
         log.info("Getting Item by Item ID: {}", itemId);
         return itemClient.getItemById(ownerId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
+                                                        @PathVariable Long itemId,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        log.info("Getting availability of Item ID: {}", itemId);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new NotValidDateException("Availability range must end after it starts.");
+        }
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
     @DeleteMapping("/{itemId}")
-    public void deleteItem(@RequestHeader(value = Constants.USER_ID_HEADER) Long ownerId,
-                           @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> deleteItem(@RequestHeader(value = Constants.USER_ID_HEADER) Long ownerId,
+                                                   @PathVariable Long itemId) {
         log.info("Deleting Item ID: {}", itemId);
-        itemClient.deleteItem(ownerId, itemId);
+        return itemClient.deleteItem(ownerId, itemId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestHeader(value = Constants.USER_ID_HEADER) Long ownerId,
-                                             @RequestParam(value = "text", required = false) String text) {
+    public Mono<ResponseEntity<Object>> searchItem(@RequestHeader(value = Constants.USER_ID_HEADER) Long ownerId,
+                                             @RequestParam(value = "text", required = false) String text,
+                                             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                             @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
         log.info("Search Items by incoming Text");
-        return itemClient.searchItem(ownerId, text);
+        return itemClient.searchItem(ownerId, text, from, size);
     }
 
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
                                     @PathVariable Long itemId,
                                     @RequestBody @Valid CreateCommentDto commentDto) {
         log.info("Creating Comment for Item by User ID: {}", userId);
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.gate.constants.Constants;
 import ru.practicum.gate.request.dto.ItemRequestDto;
 import ru.practicum.gate.validation.CreateObject;
@@ -23,21 +24,21 @@ public class ItemRequestController {
 
 
     @PostMapping
-    public ResponseEntity<Object> addItemRequest(@RequestHeader(value = Constants.USER_ID_HEADER) Long requesterId,
+    public Mono<ResponseEntity<Object>> addItemRequest(@RequestHeader(value = Constants.USER_ID_HEADER) Long requesterId,
                                                  @RequestBody @Valid @Validated(CreateObject.class) ItemRequestDto itemRequestDto) {
         log.info("Adding new Item request. Request = {}", itemRequestDto);
         return itemRequestClient.addItemRequest(requesterId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemRequestsByUserId(
+    public Mono<ResponseEntity<Object>> getItemRequestsByUserId(
             @RequestHeader(Constants.USER_ID_HEADER) Long requesterId) {
         log.info("Getting a list of Item Requests for User ID = '{}'.", requesterId);
         return itemRequestClient.getItemRequestsByUserId(requesterId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(
+    public Mono<ResponseEntity<Object>> getAllRequests(
             @RequestHeader(Constants.USER_ID_HEADER) Long requesterId,
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
             @Positive @RequestParam(defaultValue = "20") Integer size) {
@@ -46,7 +47,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> getItemRequestById(@RequestHeader(Constants.USER_ID_HEADER) Long userId,
                                                      @PathVariable Long requestId) {
         log.info("Getting Item Requests by its ID: {}", requestId);
         return itemRequestClient.getItemRequestById(requestId, userId);
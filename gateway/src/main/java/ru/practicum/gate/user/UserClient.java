@@ -2,45 +2,84 @@ package ru.practicum.gate.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
 import ru.practicum.gate.client.BaseClient;
+import ru.practicum.gate.client.ClientProperties;
 import ru.practicum.gate.user.dto.CreateUpdateUserDto;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
+    private final Duration streamReadTimeout;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ClientProperties properties) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
                         .build()
         );
+        this.streamReadTimeout = properties.getStreamReadTimeout();
     }
 
-    public ResponseEntity<Object> createUser(CreateUpdateUserDto createUpdateUserDto) {
+    public Mono<ResponseEntity<Object>> createUser(CreateUpdateUserDto createUpdateUserDto) {
         return post("", createUpdateUserDto);
     }
 
-    public ResponseEntity<Object> removeUser(Long userId) {
+    public Mono<ResponseEntity<Object>> removeUser(Long userId) {
         return delete("/" + userId);
     }
 
-    public ResponseEntity<Object> updateUser(Long userId, CreateUpdateUserDto createUpdateUserDto) {
+    public Mono<ResponseEntity<Object>> updateUser(Long userId, CreateUpdateUserDto createUpdateUserDto) {
         return patch("/" + userId, userId, createUpdateUserDto);
     }
 
-    public ResponseEntity<Object> getUserById(Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(Long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    public Mono<ResponseEntity<Object>> getAllUsers(Integer from, Integer size, Long after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "size", size,
+                    "after", after
+            );
+            return get("?size={size}&after={after}", null, parameters);
+        }
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", null, parameters);
+    }
+
+    /**
+     * Relays the server's NDJSON user stream chunk by chunk, without buffering it.
+     * Error statuses surface as {@link org.springframework.web.reactive.function.client.WebClientResponseException}
+     * before any row is written.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllUsers() {
+        return rest.get()
+                .uri("/stream")
+                .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+                .httpRequest(request -> request.<HttpClientRequest>getNativeRequest()
+                        .responseTimeout(streamReadTimeout))
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(response.getBody()));
     }
 }
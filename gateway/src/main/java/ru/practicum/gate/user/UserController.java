@@ -2,14 +2,20 @@ package ru.practicum.gate.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.gate.validation.CreateObject;
 import ru.practicum.gate.validation.UpdateObject;
 import ru.practicum.gate.user.dto.CreateUpdateUserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -20,20 +26,29 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers(
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "after", required = false) Long after) {
         log.info("Getting All Users");
-        return userClient.getAllUsers();
+        return userClient.getAllUsers(from, size, after);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllUsers() {
+        log.info("Streaming All Users");
+        return userClient.streamAllUsers();
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@RequestBody @Valid @Validated(CreateObject.class)
+    public Mono<ResponseEntity<Object>> createUser(@RequestBody @Valid @Validated(CreateObject.class)
                                              CreateUpdateUserDto createUpdateUserDto) {
         log.info("Creating User");
         return userClient.createUser(createUpdateUserDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long userId,
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long userId,
                              @Validated(UpdateObject.class) @Valid
                              @RequestBody CreateUpdateUserDto userToUpdate) {
         log.info("Updating User: {}", userId);
@@ -41,13 +56,13 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long userId) {
         log.info("Getting User by User ID: {}", userId);
         return userClient.getUserById(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
         log.info("Deleting User: {}", userId);
         return userClient.removeUser(userId);
     }
@@ -0,0 +1,31 @@
+package ru.practicum.loadtest;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Builder
+public class LoadSettings {
+    private final String mode;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int concurrency;
+    private final int seedUsers;
+    private final int seedItems;
+    private final Path report;
+
+    public static LoadSettings fromSystemProperties() {
+        return LoadSettings.builder()
+                .mode(System.getProperty("load.mode", "platform"))
+                .warmup(Duration.ofSeconds(Long.getLong("load.warmup", 5)))
+                .duration(Duration.ofSeconds(Long.getLong("load.duration", 30)))
+                .concurrency(Integer.getInteger("load.concurrency", 300))
+                .seedUsers(Integer.getInteger("load.seed-users", 50))
+                .seedItems(Integer.getInteger("load.seed-items", 100))
+                .report(Path.of(System.getProperty("load.report", "target/load-report.txt")))
+                .build();
+    }
+}
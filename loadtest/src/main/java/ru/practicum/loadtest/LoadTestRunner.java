@@ -0,0 +1,89 @@
+package ru.practicum.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the mixed ShareIt workload against an in-process gateway and server, once per execution mode,
+ * and reports per-endpoint throughput, p50/p99 latency and SQL statements per server request.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        List<String> modes = "both".equals(settings.getMode()) ? List.of("platform", "virtual")
+                : List.of(settings.getMode());
+        StringBuilder report = new StringBuilder();
+        for (String mode : modes) {
+            try (ShareItStack stack = ShareItStack.start(mode)) {
+                report.append(run(mode, stack.getGatewayUrl(), settings)).append(System.lineSeparator());
+            }
+        }
+        System.out.print(report);
+        Files.createDirectories(settings.getReport().toAbsolutePath().getParent());
+        Files.writeString(settings.getReport(), report);
+    }
+
+    private static String run(String mode, String gatewayUrl, LoadSettings settings)
+            throws InterruptedException, IOException {
+        Recorder recorder = new Recorder();
+        TrafficMix mix = new TrafficMix(gatewayUrl, recorder);
+        mix.seed(settings.getSeedUsers(), settings.getSeedItems(), new Random(42));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService workers = Executors.newFixedThreadPool(settings.getConcurrency());
+        for (int i = 0; i < settings.getConcurrency(); i++) {
+            workers.execute(() -> {
+                Random random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    mix.next(random);
+                }
+            });
+        }
+        log.warn("Running {} workers in {} mode: warmup {}, measuring {}", settings.getConcurrency(), mode,
+                settings.getWarmup(), settings.getDuration());
+        Thread.sleep(settings.getWarmup().toMillis());
+        QueryCounter.reset();
+        recorder.start();
+        Thread.sleep(settings.getDuration().toMillis());
+        recorder.stop();
+        Map<String, QueryCounter.Totals> queries = QueryCounter.snapshot();
+        running.set(false);
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        return format(mode, settings, recorder, queries);
+    }
+
+    private static String format(String mode, LoadSettings settings, Recorder recorder,
+                                 Map<String, QueryCounter.Totals> queries) {
+        double seconds = recorder.elapsedSeconds();
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Mode %s, %d workers, %.1fs measured", mode, settings.getConcurrency(), seconds));
+        lines.add(String.format("%-30s %9s %7s %7s %9s %9s %9s %9s %9s", "endpoint", "requests", "4xx", "errors",
+                "req/s", "p50 ms", "p99 ms", "server", "sql/req"));
+        long total = 0;
+        for (Map.Entry<String, Recorder.Endpoint> entry : recorder.endpoints().entrySet()) {
+            Recorder.Endpoint endpoint = entry.getValue();
+            QueryCounter.Totals server = queries.get(entry.getKey());
+            total += endpoint.count();
+            lines.add(String.format("%-30s %9d %7d %7d %9.1f %9.2f %9.2f %9d %9.2f", entry.getKey(),
+                    endpoint.count(), endpoint.clientErrors(), endpoint.serverErrors(), endpoint.count() / seconds,
+                    endpoint.percentileMillis(50), endpoint.percentileMillis(99),
+                    server == null ? 0 : server.getRequests().sum(), server == null ? 0 : server.perRequest()));
+        }
+        lines.add(String.format("%-30s %9d %7s %7s %9.1f", "total", total, "", "", total / seconds));
+        return String.join(System.lineSeparator(), lines) + System.lineSeparator();
+    }
+}
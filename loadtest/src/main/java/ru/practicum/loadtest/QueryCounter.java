@@ -0,0 +1,60 @@
+package ru.practicum.loadtest;
+
+import lombok.Getter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current request thread
+ * and aggregates them per server route.
+ */
+public class QueryCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+    private static final Map<String, Totals> TOTALS = new ConcurrentHashMap<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    static void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    static void end(String route) {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        if (count != null && route != null) {
+            Totals totals = TOTALS.computeIfAbsent(route, key -> new Totals());
+            totals.requests.increment();
+            totals.queries.add(count[0]);
+        }
+    }
+
+    static void reset() {
+        TOTALS.clear();
+    }
+
+    static Map<String, Totals> snapshot() {
+        return new TreeMap<>(TOTALS);
+    }
+
+    @Getter
+    static class Totals {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+
+        double perRequest() {
+            long count = requests.sum();
+            return count == 0 ? 0 : (double) queries.sum() / count;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.loadtest;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Added to the server context only: attributes the statements counted by {@link QueryCounter}
+ * to the matched handler pattern, e.g. {@code GET /items/{itemId}}.
+ */
+@Configuration
+public class QueryCountingConfig {
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> queryCountingFilter() {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(
+                new OncePerRequestFilter() {
+                    @Override
+                    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                                    FilterChain chain) throws ServletException, IOException {
+                        QueryCounter.begin();
+                        try {
+                            chain.doFilter(request, response);
+                        } finally {
+                            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                            QueryCounter.end(pattern == null ? null : request.getMethod() + " " + pattern);
+                        }
+                    }
+                });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side latency and outcome per endpoint. Samples are only kept between {@link #start()} and {@link #stop()}.
+ */
+class Recorder {
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private long startedAt;
+    private long stoppedAt;
+
+    void start() {
+        endpoints.clear();
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+        stoppedAt = System.nanoTime();
+    }
+
+    void record(String label, long nanos, int status) {
+        if (recording) {
+            endpoints.computeIfAbsent(label, key -> new Endpoint()).add(nanos, status);
+        }
+    }
+
+    double elapsedSeconds() {
+        return (stoppedAt - startedAt) / 1e9;
+    }
+
+    Map<String, Endpoint> endpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    static class Endpoint {
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        private void add(long nanos, int status) {
+            if (status >= 400 && status < 500) {
+                clientErrors.increment();
+            } else if (status >= 500 || status < 0) {
+                serverErrors.increment();
+            }
+            synchronized (this) {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = nanos;
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        long clientErrors() {
+            return clientErrors.sum();
+        }
+
+        long serverErrors() {
+            return serverErrors.sum();
+        }
+
+        synchronized double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            return sorted[Math.max(index, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.loadtest;
+
+import lombok.Getter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.gate.ShareItGateway;
+import ru.practicum.shareit.ShareItServer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server and gateway booted side by side in this JVM on random ports, the server on its in-memory H2.
+ * Both run on their production configuration; only ports, logging and the query counter are overridden.
+ */
+public class ShareItStack implements AutoCloseable {
+    private final ConfigurableApplicationContext server;
+    private final ConfigurableApplicationContext gateway;
+    @Getter
+    private final String gatewayUrl;
+
+    private ShareItStack(ConfigurableApplicationContext server, ConfigurableApplicationContext gateway) {
+        this.server = server;
+        this.gateway = gateway;
+        this.gatewayUrl = "http://localhost:" + port(gateway);
+    }
+
+    public static ShareItStack start(String mode) {
+        ConfigurableApplicationContext server = new SpringApplicationBuilder(ShareItServer.class,
+                QueryCountingConfig.class)
+                .run(arguments(ShareItServer.class, mode,
+                        "--shareit.h2.tcp-server.enabled=false",
+                        "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                                + QueryCounter.class.getName()));
+        try {
+            ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                    .run(arguments(ShareItGateway.class, mode,
+                            "--shareit-server.url=http://localhost:" + port(server),
+                            "--spring.autoconfigure.exclude="
+                                    + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+                                    + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration"));
+            return new ShareItStack(server, gateway);
+        } catch (RuntimeException e) {
+            server.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        gateway.close();
+        server.close();
+    }
+
+    /**
+     * Runs each application on its own module's {@code application.properties}, with the load test settings passed
+     * as command-line arguments so they take precedence over it.
+     */
+    private static String[] arguments(Class<?> application, String mode, String... overrides) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.config.location=" + configOf(application),
+                "--spring.main.banner-mode=off",
+                "--server.port=0",
+                "--shareit.execution.mode=" + mode,
+                "--logging.level.root=WARN"));
+        arguments.addAll(List.of(overrides));
+        return arguments.toArray(new String[0]);
+    }
+
+    /**
+     * Server and gateway both ship an {@code application.properties}, so a classpath lookup would hand both
+     * contexts whichever comes first. The file is taken from the module the application class was loaded from.
+     */
+    private static String configOf(Class<?> application) {
+        String module = application.getProtectionDomain().getCodeSource().getLocation().toString();
+        return module.endsWith(".jar")
+                ? "jar:" + module + "!/application.properties"
+                : module + "application.properties";
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
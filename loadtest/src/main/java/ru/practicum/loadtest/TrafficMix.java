@@ -0,0 +1,196 @@
+package ru.practicum.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Weighted mix of ShareIt calls sent through the gateway. Labels use the server's handler patterns
+ * so client latencies line up with the per-route query counts.
+ */
+class TrafficMix {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String[] WORDS = {"drill", "saw", "ladder", "tent", "bike", "camera", "kayak", "projector"};
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong emails = new AtomicLong();
+    private final Pool<Long> users = new Pool<>();
+    private final Pool<long[]> items = new Pool<>();
+    private final Queue<long[]> waitingBookings = new ConcurrentLinkedQueue<>();
+    private final List<Action> actions = new ArrayList<>();
+    private final int totalWeight;
+    private final String baseUrl;
+    private final Recorder recorder;
+
+    TrafficMix(String baseUrl, Recorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        actions.add(new Action(5, this::signup));
+        actions.add(new Action(10, this::createItem));
+        actions.add(new Action(20, this::searchItems));
+        actions.add(new Action(20, this::getItem));
+        actions.add(new Action(15, this::createBooking));
+        actions.add(new Action(5, this::approveBooking));
+        actions.add(new Action(15, this::listBookings));
+        actions.add(new Action(10, this::listOwnerBookings));
+        totalWeight = actions.stream().mapToInt(action -> action.weight).sum();
+    }
+
+    void seed(int userCount, int itemCount, Random random) {
+        for (int i = 0; i < userCount; i++) {
+            signup(random);
+        }
+        for (int i = 0; i < itemCount; i++) {
+            createItem(random);
+        }
+        if (users.size() < userCount || items.size() < itemCount) {
+            throw new IllegalStateException("Seeding failed: " + users.size() + " users, " + items.size() + " items");
+        }
+    }
+
+    void next(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (Action action : actions) {
+            roll -= action.weight;
+            if (roll < 0) {
+                action.call.accept(random);
+                return;
+            }
+        }
+    }
+
+    private void signup(Random random) {
+        long n = emails.incrementAndGet();
+        JsonNode user = send("POST /users", "POST", "/users", null,
+                Map.of("name", "User " + n, "email", "load-" + n + "@shareit.ru"));
+        if (user != null) {
+            users.add(user.get("id").asLong());
+        }
+    }
+
+    private void createItem(Random random) {
+        long ownerId = users.random(random);
+        String word = WORDS[random.nextInt(WORDS.length)];
+        JsonNode item = send("POST /items", "POST", "/items", ownerId,
+                Map.of("name", word + " " + random.nextInt(1000), "description", "Rent my " + word,
+                        "available", true));
+        if (item != null) {
+            items.add(new long[]{item.get("id").asLong(), ownerId});
+        }
+    }
+
+    private void searchItems(Random random) {
+        send("GET /items/search", "GET", "/items/search?from=0&size=20&text=" + WORDS[random.nextInt(WORDS.length)],
+                users.random(random), null);
+    }
+
+    private void getItem(Random random) {
+        send("GET /items/{itemId}", "GET", "/items/" + items.random(random)[0], users.random(random), null);
+    }
+
+    private void createBooking(Random random) {
+        long[] item = items.random(random);
+        long bookerId = users.random(random);
+        if (bookerId == item[1]) {
+            return;
+        }
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+                .plusDays(1 + random.nextInt(365)).plusHours(random.nextInt(24));
+        LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+        JsonNode booking = send("POST /bookings", "POST", "/bookings", bookerId,
+                Map.of("itemId", item[0], "start", DATE_FORMAT.format(start), "end", DATE_FORMAT.format(end)));
+        if (booking != null) {
+            waitingBookings.add(new long[]{booking.get("id").asLong(), item[1]});
+        }
+    }
+
+    private void approveBooking(Random random) {
+        long[] booking = waitingBookings.poll();
+        if (booking == null) {
+            createBooking(random);
+            return;
+        }
+        send("PATCH /bookings/{bookingId}", "PATCH", "/bookings/" + booking[0] + "?approved=" + random.nextBoolean(),
+                booking[1], null);
+    }
+
+    private void listBookings(Random random) {
+        send("GET /bookings", "GET", "/bookings?from=0&size=20&state=" + STATES[random.nextInt(STATES.length)],
+                users.random(random), null);
+    }
+
+    private void listOwnerBookings(Random random) {
+        send("GET /bookings/owner", "GET",
+                "/bookings/owner?from=0&size=20&state=" + STATES[random.nextInt(STATES.length)],
+                items.random(random)[1], null);
+    }
+
+    private JsonNode send(String label, String method, String path, Long userId, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (userId != null) {
+            request.header(USER_ID_HEADER, userId.toString());
+        }
+        long started = System.nanoTime();
+        try {
+            request.method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            recorder.record(label, System.nanoTime() - started, response.statusCode());
+            return response.statusCode() / 100 == 2 ? mapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            recorder.record(label, System.nanoTime() - started, -1);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Action {
+        private final int weight;
+        private final Consumer<Random> call;
+    }
+
+    private static class Pool<T> {
+        private final List<T> values = new ArrayList<>();
+
+        synchronized void add(T value) {
+            values.add(value);
+        }
+
+        synchronized T random(Random random) {
+            return values.get(random.nextInt(values.size()));
+        }
+
+        synchronized int size() {
+            return values.size();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Moves entity ids from identity columns to sequences that Hibernate allocates from in blocks.
+ * Each sequence starts one block past the highest id already issued, so existing rows keep their ids.
+ * The block size is the {@code id-allocation-size} placeholder; Hibernate reads it back from the sequence.
+ * Column defaults draw from the same sequences, so plain SQL inserts cannot collide with allocated blocks.
+ */
+public class V10__Use_pooled_id_sequences extends BaseJavaMigration {
+    private static final String ALLOCATION_SIZE_PLACEHOLDER = "id-allocation-size";
+    private static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        int allocationSize = allocationSize(context);
+        Connection connection = context.getConnection();
+        boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+
+        Map<String, String> sequences = new LinkedHashMap<>();
+        sequences.put("users", "user_seq");
+        sequences.put("requests", "request_seq");
+        sequences.put("items", "item_seq");
+        sequences.put("bookings", "booking_seq");
+        sequences.put("feedbacks", "comment_seq");
+
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> entry : sequences.entrySet()) {
+                String table = entry.getKey();
+                String sequence = entry.getValue();
+                long start = maxId(statement, table) + allocationSize;
+                statement.execute("create sequence " + sequence + " start with " + start
+                        + " increment by " + allocationSize);
+                statement.execute("alter table " + table + " alter column id drop identity");
+                statement.execute("alter table " + table + " alter column id set default "
+                        + (postgres ? "nextval('" + sequence + "')" : "next value for " + sequence));
+            }
+        }
+    }
+
+    private static int allocationSize(Context context) {
+        String value = context.getConfiguration().getPlaceholders().get(ALLOCATION_SIZE_PLACEHOLDER);
+        return value == null ? DEFAULT_ALLOCATION_SIZE : Integer.parseInt(value);
+    }
+
+    /**
+     * Archived bookings keep their ids, so the booking sequence also starts past the archive.
+     */
+    private static long maxId(Statement statement, String table) throws SQLException {
+        String sql = "bookings".equals(table)
+                ? "select greatest(coalesce((select max(id) from bookings), 0), "
+                + "coalesce((select max(id) from bookings_archive), 0))"
+                : "select coalesce(max(id), 0) from " + table;
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -2,8 +2,13 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingForResponse;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -14,6 +19,7 @@ import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
 
+import static ru.practicum.shareit.constant.Constants.NEXT_CURSOR_HEADER;
 import static ru.practicum.shareit.constant.Constants.USER_ID_HEADER;
 
 @RestController
@@ -42,6 +48,20 @@ public class BookingController {
         return bookingService.updateBooking(ownerId, bookingId, approved);
     }
 
+    @PatchMapping
+    List<BookingDecisionResult> updateBookings(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                                               @RequestParam Boolean approved,
+                                               @RequestBody List<Long> bookingIds) {
+        log.info("Updating {} bookings", bookingIds.size());
+        return bookingService.updateBookings(ownerId, bookingIds, approved);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter subscribeToEvents(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("Subscribing to booking events");
+        return bookingService.subscribeToEvents(userId);
+    }
+
     @GetMapping("/{bookingId}")
     BookingForResponse getBookingByOwner(@RequestHeader(USER_ID_HEADER) Long userId,
                                          @PathVariable Long bookingId) {
@@ -50,22 +70,32 @@ public class BookingController {
     }
 
     @GetMapping
-    List<BookingForResponse> getAllUserBookings(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                @RequestParam(value = "state",
-                                                        defaultValue = "ALL") String state,
-                                                @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+    ResponseEntity<List<BookingForResponse>> getAllUserBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                @RequestParam(value = "state",
+                                                                        defaultValue = "ALL") String state,
+                                                                @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+                                                                @RequestParam(name = "after", required = false) String after) {
         log.info("Getting Booking by User");
-        return bookingService.getAllUserBookings(userId, state, from, size);
+        return withNextCursor(bookingService.getAllUserBookings(userId, state, from, size, after), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingForResponse> getAllOwnerBookings(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                        @RequestParam(value = "state", defaultValue = "ALL")
-                                                        String state,
-                                                        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                        @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+    public ResponseEntity<List<BookingForResponse>> getAllOwnerBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                        @RequestParam(value = "state", defaultValue = "ALL")
+                                                                        String state,
+                                                                        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                        @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+                                                                        @RequestParam(name = "after", required = false) String after) {
         log.info("Getting All Bookings by Owner");
-        return bookingService.getAllOwnerBookings(userId, state, from, size);
+        return withNextCursor(bookingService.getAllOwnerBookings(userId, state, from, size, after), size);
+    }
+
+    private ResponseEntity<List<BookingForResponse>> withNextCursor(List<BookingForResponse> page, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(page.get(page.size() - 1)).encode());
+        }
+        return response.body(page);
     }
 }
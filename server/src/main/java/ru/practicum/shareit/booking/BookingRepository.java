@@ -1,51 +1,108 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.booking.query.BookingQueryRepository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerOrderByStartDesc(User user, Pageable pageable);
-
-    List<Booking> findAllByBookerAndStartBeforeAndEndAfterOrderByStartDesc(
-            User user, LocalDateTime startDateTime, LocalDateTime endDateTime, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-            User user, LocalDateTime startDateTime, LocalDateTime endDateTime, Pageable pageable);
-
-
-    @Query("SELECT b FROM Booking b WHERE b.booker = :user AND b.end < :localDateTime ORDER BY b.start DESC")
-    List<Booking> findAllByBookerAndEndIsBeforeOrderByStartDesc(
-            @Param("user") User user, @Param("localDateTime") LocalDateTime localDateTime, Pageable pageable);
-
-
-    List<Booking> findAllByBookerAndStartIsAfterOrderByStartDesc(
-            User user, LocalDateTime localDateTime, Pageable pageable);
-
-
-    List<Booking> findAllByBookerAndStatusEqualsOrderByStartDesc(
-            User user, Status status, Pageable pageable);
-
-
-    List<Booking> findAllByItem_OwnerOrderByStartDesc(User userId, Pageable pageable);
-
-
-    @Query("select b from Booking b where b.item.owner = :user and b.end < :time order by b.start DESC")
-    List<Booking> findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(
-            @Param("user") User user,
-            @Param("time") LocalDateTime localDateTime, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(
-            User user, LocalDateTime localDateTime, Pageable pageable);
-
-
-    List<Booking> findAllByItem_OwnerAndStatusEqualsOrderByStartDesc(
-            User user, Status status, Pageable pageable);
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static ru.practicum.shareit.constant.Constants.EXPORT_FETCH_SIZE;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+    @Query(value = "select t.item_id as itemId, t.id as id, t.booker_id as bookerId, t.kind as kind from ( "
+            + "select b.id, b.item_id, b.booker_id, 'LAST' as kind, "
+            + "row_number() over (partition by b.item_id order by b.start_time desc) as rn "
+            + "from bookings b "
+            + "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_time < :now "
+            + "union all "
+            + "select b.id, b.item_id, b.booker_id, 'NEXT' as kind, "
+            + "row_number() over (partition by b.item_id order by b.start_time asc) as rn "
+            + "from bookings b "
+            + "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_time > :now "
+            + ") t where t.rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastAndNextApproved(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("now") LocalDateTime now);
+
+    @Query("select b from Booking b where b.item.id = :itemId and b.status in :statuses and b.end > :from")
+    List<Booking> findBlockingBookings(@Param("itemId") Long itemId,
+                                       @Param("statuses") Collection<Status> statuses,
+                                       @Param("from") LocalDateTime from);
+
+    @Query("select b from Booking b where b.item.id = :itemId and b.status in :statuses "
+            + "and b.end > :from and b.start < :to")
+    List<Booking> findBlockingBookingsBetween(@Param("itemId") Long itemId,
+                                              @Param("statuses") Collection<Status> statuses,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    @Query("select b.id as id, i.id as itemId, b.booker.id as bookerId, i.owner.id as ownerId, b.status as status "
+            + "from Booking b join b.item i "
+            + "where b.id in :ids and i.owner.id = :ownerId")
+    List<BookingStatusView> findStatusesOwnedBy(@Param("ids") Collection<Long> ids,
+                                                @Param("ownerId") Long ownerId);
+
+    @Query("select b.id as id, i.id as itemId, b.booker.id as bookerId, i.owner.id as ownerId, b.status as status "
+            + "from Booking b join b.item i "
+            + "where b.id in :ids")
+    List<BookingStatusView> findStatuses(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select b.id as id, b.item_id as itemId, b.booker_id as bookerId, i.owner_id as ownerId, "
+            + "b.status as status "
+            + "from bookings b join items i on i.id = b.item_id "
+            + "where b.status = 'WAITING' and b.start_time < :now "
+            + "order by b.start_time, b.id "
+            + "limit :limit", nativeQuery = true)
+    List<BookingStatusView> findWaitingStartedBefore(@Param("now") LocalDateTime now,
+                                                     @Param("limit") int limit);
+
+    /**
+     * Finished bookings that ended before the cutoff, locked until the archiver's transaction completes.
+     */
+    @Query(value = "select b.id from bookings b "
+            + "where b.end_time < :cutoff and b.status <> 'WAITING' "
+            + "order by b.end_time, b.id "
+            + "limit :limit for update", nativeQuery = true)
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 "
+            + "where b.id in :ids and b.status = :expected")
+    int updateStatuses(@Param("ids") Collection<Long> ids,
+                       @Param("expected") Status expected,
+                       @Param("status") Status status);
+
+    /**
+     * Whether the user has a booking of the item that ended before the given time, live or archived.
+     */
+    @Query(value = "select exists (select 1 from bookings b "
+            + "where b.item_id = :itemId and b.booker_id = :bookerId and b.end_time < :before) "
+            + "or exists (select 1 from bookings_archive a "
+            + "where a.item_id = :itemId and a.booker_id = :bookerId and a.end_time < :before)", nativeQuery = true)
+    boolean existsFinished(@Param("itemId") Long itemId,
+                           @Param("bookerId") Long bookerId,
+                           @Param("before") LocalDateTime before);
+
+    /**
+     * Export rows (id, itemId, bookerId, start, end, status) in id order.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select b.id, b.item.id, b.booker.id, b.start, b.end, b.status from Booking b order by b.id")
+    Stream<Object[]> streamExportRows();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select b.id, i.id, b.booker.id, b.start, b.end, b.status from Booking b join b.item i "
+            + "where i.owner.id = :ownerId order by b.id")
+    Stream<Object[]> streamExportRowsByOwnerId(@Param("ownerId") Long ownerId);
 }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static ru.practicum.shareit.constant.Constants.EXPORT_FETCH_SIZE;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    @Modifying
+    @Query(value = "insert into bookings_archive "
+            + "(id, item_id, booker_id, start_time, end_time, status, version, archived_at) "
+            + "select id, item_id, booker_id, start_time, end_time, status, version, :archivedAt "
+            + "from bookings where id in (:ids)", nativeQuery = true)
+    int copyFromBookings(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * The latest archived APPROVED booking of each item, for items whose last booking has left the live table.
+     */
+    @Query(value = "select t.item_id as itemId, t.id as id, t.booker_id as bookerId, 'LAST' as kind from ( "
+            + "select b.id, b.item_id, b.booker_id, "
+            + "row_number() over (partition by b.item_id order by b.start_time desc) as rn "
+            + "from bookings_archive b "
+            + "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_time < :now "
+            + ") t where t.rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastApproved(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now);
+
+    /**
+     * Export rows (id, itemId, bookerId, start, end, status) in id order.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select b.id, b.item.id, b.booker.id, b.start, b.end, b.status from ArchivedBooking b order by b.id")
+    Stream<Object[]> streamExportRows();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select b.id, i.id, b.booker.id, b.start, b.end, b.status from ArchivedBooking b join b.item i "
+            + "where i.owner.id = :ownerId order by b.id")
+    Stream<Object[]> streamExportRowsByOwnerId(@Param("ownerId") Long ownerId);
+}
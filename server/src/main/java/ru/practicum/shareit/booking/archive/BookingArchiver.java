@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.scheduling.JobExecutors;
+import ru.practicum.shareit.scheduling.JobLock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves finished bookings that ended more than {@code shareit.booking.archive.retention} ago from {@code bookings}
+ * to {@code bookings_archive}, so the live table and the queries on it only carry recent history.
+ * Each chunk of {@code shareit.booking.archive.batch-size} bookings is copied and deleted in one transaction,
+ * and only the node holding the {@link JobLock} lease archives.
+ */
+@Component
+@Slf4j
+public class BookingArchiver implements SmartLifecycle {
+    static final String JOB = "booking-archive";
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLock jobLock;
+    private final ScheduledExecutorService executor;
+    private volatile boolean running;
+    private final boolean enabled;
+    private final Period retention;
+    private final Duration interval;
+    private final Duration lease;
+    private final int batchSize;
+    private final DistributionSummary rowsPerRun;
+    private final Counter archived;
+    private final Timer runs;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           ArchivedBookingRepository archivedBookingRepository,
+                           TransactionTemplate transactionTemplate,
+                           JobLock jobLock,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.booking.archive.enabled:true}") boolean enabled,
+                           @Value("${shareit.booking.archive.retention:12m}") Period retention,
+                           @Value("${shareit.booking.archive.interval:1h}") Duration interval,
+                           @Value("${shareit.booking.archive.lease:30m}") Duration lease,
+                           @Value("${shareit.booking.archive.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLock = jobLock;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.interval = interval;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rowsPerRun = DistributionSummary.builder("bookings.archive.rows")
+                .description("Bookings archived per archiver run")
+                .register(meterRegistry);
+        this.archived = meterRegistry.counter("bookings.archived");
+        this.runs = meterRegistry.timer("bookings.archive.runs");
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::archiveSafely, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        JobExecutors.stop(executor, JOB);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Bookings that started at or after the horizon are never in the archive.
+     */
+    public LocalDateTime horizon(LocalDateTime now) {
+        return now.minus(retention);
+    }
+
+    /**
+     * Archives finished bookings in chunks and returns how many were moved, or -1 when another node holds the lease.
+     */
+    public int archive() {
+        if (!jobLock.tryAcquire(JOB, lease)) {
+            return -1;
+        }
+        try {
+            return runs.record(() -> {
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime cutoff = horizon(now);
+                int total = 0;
+                int chunk;
+                do {
+                    chunk = transactionTemplate.execute(status -> moveChunk(cutoff, now));
+                    total += chunk;
+                } while (chunk == batchSize);
+                rowsPerRun.record(total);
+                archived.increment(total);
+                if (total > 0) {
+                    log.info("Archived {} bookings that ended before {}", total, cutoff);
+                }
+                return total;
+            });
+        } finally {
+            jobLock.release(JOB);
+        }
+    }
+
+    private int moveChunk(LocalDateTime cutoff, LocalDateTime now) {
+        List<Long> ids = bookingRepository.findArchivableIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBookingRepository.copyFromBookings(ids, now);
+        bookingRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    private void archiveSafely() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.error("Booking archive run failed", e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-item index of WAITING and APPROVED booking ranges.
+ * The bookings table stays the source of truth: an item is loaded with a range query on first use
+ * and the cached ranges are updated only after the booking transaction commits.
+ * Every change bumps a generation for the item's stripe; a load that saw a change while it was reading is
+ * returned to its caller but not cached, so a booking committed during the read cannot be lost from the index.
+ */
+@Component
+@Slf4j
+public class ItemAvailabilityIndex {
+    public static final List<Status> BLOCKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final int GENERATION_STRIPES = 256;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> intervals;
+    /**
+     * Guarded by {@code intervals}, like every check-and-update of the cached ranges.
+     */
+    private final long[] generations = new long[GENERATION_STRIPES];
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.intervals = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemIntervals> eldest) {
+                return size() > maxItems;
+            }
+        });
+    }
+
+    public boolean hasConflict(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return intervalsOf(itemId).overlaps(start, end);
+    }
+
+    /**
+     * Merged WAITING and APPROVED ranges of the item within {@code [from, to)}.
+     * Windows starting in the past are not covered by the cached ranges and are read with a range query.
+     */
+    public List<TimeRange> busyBetween(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(LocalDateTime.now())) {
+            return intervalsOf(itemId).between(from, to);
+        }
+        ItemIntervals window = new ItemIntervals();
+        bookingRepository.findBlockingBookingsBetween(itemId, BLOCKING_STATUSES, from, to)
+                .forEach(booking -> window.add(booking.getStart(), booking.getEnd()));
+        return window.between(from, to);
+    }
+
+    public void register(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        TransactionUtils.afterCommit(() -> {
+            synchronized (intervals) {
+                generations[stripe(itemId)]++;
+                ItemIntervals cached = intervals.get(itemId);
+                if (cached != null) {
+                    cached.add(start, end);
+                }
+            }
+        });
+    }
+
+    public void evict(Long itemId) {
+        TransactionUtils.afterCommit(() -> reload(itemId));
+    }
+
+    /**
+     * Drops the cached ranges at once, so the next check reads bookings committed by other nodes.
+     */
+    public void reload(Long itemId) {
+        synchronized (intervals) {
+            generations[stripe(itemId)]++;
+            intervals.remove(itemId);
+        }
+    }
+
+    private ItemIntervals intervalsOf(Long itemId) {
+        long generation;
+        synchronized (intervals) {
+            ItemIntervals cached = intervals.get(itemId);
+            if (cached != null) {
+                return cached;
+            }
+            generation = generations[stripe(itemId)];
+        }
+        ItemIntervals loaded = new ItemIntervals();
+        bookingRepository.findBlockingBookings(itemId, BLOCKING_STATUSES, LocalDateTime.now())
+                .forEach(booking -> loaded.add(booking.getStart(), booking.getEnd()));
+        synchronized (intervals) {
+            if (generations[stripe(itemId)] != generation) {
+                log.debug("Availability of Item ID = {} changed while loading, not cached", itemId);
+                return loaded;
+            }
+            log.debug("Availability of Item ID = {} loaded: {} busy ranges", itemId, loaded.size());
+            ItemIntervals existing = intervals.putIfAbsent(itemId, loaded);
+            return existing != null ? existing : loaded;
+        }
+    }
+
+    private static int stripe(Long itemId) {
+        return Math.floorMod(itemId.hashCode(), GENERATION_STRIPES);
+    }
+}
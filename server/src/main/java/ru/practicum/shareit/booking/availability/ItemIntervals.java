@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Sorted, non-overlapping busy ranges of a single item.
+ * Adjacent or overlapping ranges are merged on insert, so a conflict check is a single floor lookup.
+ */
+class ItemIntervals {
+    private final NavigableMap<LocalDateTime, LocalDateTime> ranges = new TreeMap<>();
+
+    synchronized void add(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime mergedStart = start;
+        LocalDateTime mergedEnd = end;
+
+        Map.Entry<LocalDateTime, LocalDateTime> floor = ranges.floorEntry(start);
+        if (floor != null && !floor.getValue().isBefore(start)) {
+            mergedStart = floor.getKey();
+            mergedEnd = max(mergedEnd, floor.getValue());
+        }
+
+        List<LocalDateTime> absorbed = new ArrayList<>();
+        for (Map.Entry<LocalDateTime, LocalDateTime> range : ranges.subMap(mergedStart, true, mergedEnd, true).entrySet()) {
+            mergedEnd = max(mergedEnd, range.getValue());
+            absorbed.add(range.getKey());
+        }
+        absorbed.forEach(ranges::remove);
+
+        ranges.put(mergedStart, mergedEnd);
+    }
+
+    synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = ranges.lowerEntry(end);
+        return candidate != null && candidate.getValue().isAfter(start);
+    }
+
+    /**
+     * Busy ranges that intersect {@code [from, to)}, clipped to it.
+     */
+    synchronized List<TimeRange> between(LocalDateTime from, LocalDateTime to) {
+        List<TimeRange> busy = new ArrayList<>();
+        Map.Entry<LocalDateTime, LocalDateTime> first = ranges.lowerEntry(from);
+        if (first != null && first.getValue().isAfter(from)) {
+            busy.add(new TimeRange(from, min(first.getValue(), to)));
+        }
+        for (Map.Entry<LocalDateTime, LocalDateTime> range : ranges.subMap(from, true, to, false).entrySet()) {
+            busy.add(new TimeRange(range.getKey(), min(range.getValue(), to)));
+        }
+        return busy;
+    }
+
+    synchronized int size() {
+        return ranges.size();
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.Status;
+
+/**
+ * Outcome of a batch approve or reject for one booking ID. {@code status} is the booking status after the batch,
+ * or {@code null} when the booking is not found among the owner's bookings.
+ */
+@Data
+@Builder
+public class BookingDecisionResult {
+    private Long bookingId;
+    private Outcome outcome;
+    private Status status;
+
+    public enum Outcome {
+        UPDATED,
+        NOT_WAITING,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingShortView {
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+
+    String getKind();
+}
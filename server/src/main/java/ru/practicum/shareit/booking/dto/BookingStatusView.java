@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.Status;
+
+public interface BookingStatusView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    Long getOwnerId();
+
+    Status getStatus();
+}
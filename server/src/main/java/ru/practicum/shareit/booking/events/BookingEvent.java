@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.events;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+import ru.practicum.shareit.booking.model.Status;
+
+@Value
+@Builder
+@Jacksonized
+public class BookingEvent {
+    Type type;
+    Long bookingId;
+    Long itemId;
+    Long ownerId;
+    Long bookerId;
+    Status status;
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED
+    }
+}
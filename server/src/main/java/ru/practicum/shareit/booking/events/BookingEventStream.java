@@ -0,0 +1,209 @@
+package ru.practicum.shareit.booking.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxMessage;
+import ru.practicum.shareit.outbox.OutboxSubscriber;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes booking changes to the owner and the booker over server-sent events.
+ * Events arrive from the outbox relay after the booking transaction commits,
+ * so a slow subscriber never holds up the request that changed the booking.
+ * A stream lives on the node holding its HTTP connection; every node's relay tails the whole outbox,
+ * so the stream also gets the changes made through other nodes, within {@code shareit.outbox.poll-interval}.
+ * The relay only queues events: each stream has a bounded queue drained by a small writer pool, and a stream
+ * whose queue overflows is reading too slowly and is closed, so one stalled client cannot hold up the others.
+ * Idle streams get a comment line every {@code shareit.events.heartbeat} to keep proxies from closing them.
+ */
+@Component
+@Slf4j
+public class BookingEventStream implements OutboxSubscriber {
+    static final String EVENT_NAME = "booking";
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(3);
+
+    private final Map<Long, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberCount = new AtomicLong();
+    private final ScheduledExecutorService heartbeats;
+    private final ExecutorService writers;
+    private final Counter slowSubscribers;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final int bufferSize;
+
+    public BookingEventStream(MeterRegistry meterRegistry,
+                              ObjectMapper objectMapper,
+                              @Value("${shareit.events.timeout:30m}") Duration timeout,
+                              @Value("${shareit.events.heartbeat:20s}") Duration heartbeat,
+                              @Value("${shareit.events.buffer-size:64}") int bufferSize,
+                              @Value("${shareit.events.writer-threads:4}") int writerThreads) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger writerNumber = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "booking-events-writer-" + writerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats.scheduleAtFixedRate(this::sendHeartbeats, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+        meterRegistry.gauge("bookings.events.subscribers", subscriberCount);
+        this.slowSubscribers = meterRegistry.counter("bookings.events.slow-subscribers");
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        return subscribe(userId, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Long userId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(userId, emitter);
+        subscribers.compute(userId, (id, current) -> {
+            Set<Subscription> updated = current != null ? current : ConcurrentHashMap.newKeySet();
+            updated.add(subscription);
+            return updated;
+        });
+        subscriberCount.incrementAndGet();
+        Runnable unsubscribe = () -> unsubscribe(subscription);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        subscription.enqueue(SseEmitter.event().reconnectTime(RECONNECT_DELAY.toMillis()).comment("subscribed"));
+        log.debug("User ID = {} subscribed to booking events", userId);
+        return emitter;
+    }
+
+    @Override
+    public boolean supports(String aggregateType) {
+        return Outbox.BOOKING.equals(aggregateType);
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        BookingEvent event;
+        try {
+            event = objectMapper.readValue(message.getPayload(), BookingEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed booking event " + message.getId(), e);
+        }
+        send(event.getOwnerId(), event);
+        if (!event.getBookerId().equals(event.getOwnerId())) {
+            send(event.getBookerId(), event);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        writers.shutdownNow();
+        subscribers.values().forEach(current -> current.forEach(subscription -> subscription.emitter.complete()));
+    }
+
+    private void send(Long userId, BookingEvent event) {
+        subscribers.getOrDefault(userId, Set.of())
+                .forEach(subscription -> subscription.enqueue(SseEmitter.event().name(EVENT_NAME).data(event)));
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(current -> current.forEach(subscription ->
+                subscription.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        Set<Subscription> current = subscribers.get(subscription.userId);
+        if (current != null && current.remove(subscription)) {
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(subscription.userId, (id, remaining) -> remaining.isEmpty() ? null : remaining);
+        }
+    }
+
+    /**
+     * One open stream. At most one writer drains it at a time, so its events keep their order.
+     */
+    private final class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (pending.offer(event)) {
+                scheduleDrain();
+                return;
+            }
+            log.debug("Closing booking event stream of User ID = {}: {} events not read", userId, bufferSize);
+            slowSubscribers.increment();
+            unsubscribe(this);
+            pending.clear();
+            // Completing waits for a write in progress, so it must not run on the caller's thread.
+            execute(emitter::complete);
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true) && !execute(this::drain)) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                for (SseEmitter.SseEventBuilder event = pending.poll(); event != null; event = pending.poll()) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping booking event stream of User ID = {}: {}", userId, e.getMessage());
+                unsubscribe(this);
+                pending.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private boolean execute(Runnable task) {
+            try {
+                writers.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.scheduling.JobExecutors;
+import ru.practicum.shareit.scheduling.JobLock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires WAITING bookings whose start time has passed, every {@code shareit.booking.expiry.interval}.
+ * Each chunk of {@code shareit.booking.expiry.batch-size} bookings is expired in its own transaction.
+ * Only the node holding the {@link JobLock} lease sweeps; a second sweeper after a lost lease is harmless
+ * because only bookings that are still WAITING are updated.
+ */
+@Component
+@Slf4j
+public class BookingExpirySweeper implements SmartLifecycle {
+    static final String JOB = "booking-expiry";
+
+    private final BookingService bookingService;
+    private final JobLock jobLock;
+    private final ScheduledExecutorService executor;
+    private volatile boolean running;
+    private final boolean enabled;
+    private final Duration interval;
+    private final Duration lease;
+    private final int batchSize;
+    private final DistributionSummary rowsPerRun;
+    private final Counter expired;
+    private final Timer runs;
+
+    public BookingExpirySweeper(BookingService bookingService,
+                                JobLock jobLock,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.booking.expiry.enabled:true}") boolean enabled,
+                                @Value("${shareit.booking.expiry.interval:1m}") Duration interval,
+                                @Value("${shareit.booking.expiry.lease:5m}") Duration lease,
+                                @Value("${shareit.booking.expiry.batch-size:500}") int batchSize) {
+        this.bookingService = bookingService;
+        this.jobLock = jobLock;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rowsPerRun = DistributionSummary.builder("bookings.expiry.rows")
+                .description("Bookings expired per sweeper run")
+                .register(meterRegistry);
+        this.expired = meterRegistry.counter("bookings.expired");
+        this.runs = meterRegistry.timer("bookings.expiry.runs");
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::sweepSafely, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        JobExecutors.stop(executor, JOB);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Expires stale bookings in chunks and returns how many were expired, or -1 when another node holds the lease.
+     */
+    public int sweep() {
+        if (!jobLock.tryAcquire(JOB, lease)) {
+            return -1;
+        }
+        try {
+            return runs.record(() -> {
+                LocalDateTime now = LocalDateTime.now();
+                int total = 0;
+                int chunk;
+                do {
+                    chunk = bookingService.expireStaleBookings(now, batchSize);
+                    total += chunk;
+                } while (chunk == batchSize);
+                rowsPerRun.record(total);
+                expired.increment(total);
+                if (total > 0) {
+                    log.info("Expired {} WAITING bookings that started before {}", total, now);
+                }
+                return total;
+            });
+        } finally {
+            jobLock.release(JOB);
+        }
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            log.error("Booking expiry run failed", e);
+        }
+    }
+}
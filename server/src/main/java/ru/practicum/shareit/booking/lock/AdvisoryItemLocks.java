@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * PostgreSQL transaction-level advisory locks keyed by item id, enabled with
+ * {@code shareit.booking.locking=advisory} when several server nodes share one database.
+ * The database releases the lock on commit or rollback.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shareit.booking", name = "locking", havingValue = "advisory")
+public class AdvisoryItemLocks implements ItemLocks {
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration timeout;
+
+    public AdvisoryItemLocks(JdbcTemplate jdbcTemplate,
+                             @Value("${shareit.booking.lock-timeout:5s}") Duration timeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void lockUntilCompletion(Long itemId) {
+        jdbcTemplate.execute("set local lock_timeout = " + timeout.toMillis());
+        jdbcTemplate.query("select pg_advisory_xact_lock(?)", resultSet -> null, itemId);
+    }
+
+    @Override
+    public boolean isClusterWide() {
+        return true;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.lock;
+
+/**
+ * Serializes booking creation per item: the availability check and the insert of a new booking
+ * run under a lock that is held until the surrounding transaction completes.
+ */
+public interface ItemLocks {
+
+    void lockUntilCompletion(Long itemId);
+
+    /**
+     * Whether the lock also excludes other server nodes, whose availability caches this node cannot see.
+     */
+    boolean isClusterWide();
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process item locks for a single server node, the default.
+ * Items are spread over a fixed set of lock stripes, so memory does not grow with the number of items
+ * and unrelated items rarely wait on each other.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shareit.booking", name = "locking", havingValue = "striped", matchIfMissing = true)
+public class StripedItemLocks implements ItemLocks {
+    private final ReentrantLock[] stripes;
+    private final Duration timeout;
+
+    public StripedItemLocks(@Value("${shareit.booking.lock-stripes:64}") int stripes,
+                            @Value("${shareit.booking.lock-timeout:5s}") Duration timeout) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void lockUntilCompletion(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Item locks are released on transaction completion, "
+                    + "no transaction is active");
+        }
+        ReentrantLock lock = stripes[(int) Math.floorMod(itemId, (long) stripes.length)];
+        try {
+            if (!lock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ConflictException("Item with ID = '" + itemId + "' is being booked, try again later.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for Item with ID = '" + itemId + "'.");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    @Override
+    public boolean isClusterWide() {
+        return false;
+    }
+}
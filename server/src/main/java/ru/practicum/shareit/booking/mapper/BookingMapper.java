@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
 import ru.practicum.shareit.booking.dto.BookingForResponse;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -18,6 +20,18 @@ public class BookingMapper {
                 .build();
     }
 
+    public Booking toBookingFromArchivedBooking(ArchivedBooking archivedBooking) {
+        return Booking.builder()
+                .id(archivedBooking.getId())
+                .start(archivedBooking.getStart())
+                .end(archivedBooking.getEnd())
+                .item(archivedBooking.getItem())
+                .booker(archivedBooking.getBooker())
+                .status(archivedBooking.getStatus())
+                .version(archivedBooking.getVersion())
+                .build();
+    }
+
     public BookingForItemDto toBookingForItemDto(Booking booking) {
         if (booking == null) {
             return null;
@@ -29,6 +43,17 @@ public class BookingMapper {
                 .build();
     }
 
+    public BookingForItemDto toBookingForItemDto(BookingShortView booking) {
+        if (booking == null) {
+            return null;
+        }
+
+        return BookingForItemDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .build();
+    }
+
     public BookingForResponse toGetBookingForResponse(Booking booking) {
         return BookingForResponse.builder()
                 .id(booking.getId())
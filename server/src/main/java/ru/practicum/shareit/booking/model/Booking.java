@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.model;
 
 import lombok.*;
+import ru.practicum.shareit.constant.Constants;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -11,14 +12,15 @@ import java.time.LocalDateTime;
 @Setter
 @Entity
 @Table(name = "bookings", schema = "public")
-@EqualsAndHashCode(exclude = {"start", "end", "item", "booker", "status"})
+@EqualsAndHashCode(exclude = {"start", "end", "item", "booker", "status", "version"})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(toBuilder = true)
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = Constants.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "start_time", nullable = false)
@@ -37,4 +39,7 @@ public class Booking {
 
     @Enumerated(EnumType.STRING)
     private Status status;
+
+    @Version
+    private Long version;
 }
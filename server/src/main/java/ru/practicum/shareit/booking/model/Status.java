@@ -4,5 +4,6 @@ public enum Status {
     WAITING,
     APPROVED,
     CONFIRMED,
-    REJECTED
+    REJECTED,
+    EXPIRED
 }
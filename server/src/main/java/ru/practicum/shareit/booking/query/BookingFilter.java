@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.query;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * One page of a booking listing. Unset optional fields add no condition to the query.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class BookingFilter {
+    private final Role role;
+    private final Long userId;
+    @Builder.Default
+    private final BookingState state = BookingState.ALL;
+    private final LocalDateTime now;
+    private final Collection<Status> statuses;
+    private final Collection<Long> itemIds;
+    private final LocalDateTime rangeStart;
+    private final LocalDateTime rangeEnd;
+    private final BookingCursor after;
+    /**
+     * Bookings that started before this instant may have moved to the archive; null reads only live bookings.
+     */
+    private final LocalDateTime archivedBefore;
+    private final int offset;
+    private final int limit;
+
+    public enum Role {
+        BOOKER,
+        OWNER
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.query;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    /**
+     * Bookings matching the filter ordered by (start DESC, id DESC), with item and booker fetched.
+     * Archived bookings are returned as detached {@link Booking} instances.
+     */
+    List<Booking> findPage(BookingFilter filter);
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.booking.query;
+
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Parameter;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiles a {@link BookingFilter} into a single query shape: bookings inner-joined with their item and booker,
+ * filtered by role, state and the optional conditions, ordered for keyset paging.
+ * Every value is bound as a parameter, so equal filter shapes render the same JPQL and reuse its cached plan.
+ * The same query runs against {@link ArchivedBooking} when the page may reach back past
+ * {@link BookingFilter#getArchivedBefore()}, and the two tiers are merged in listing order.
+ */
+@RequiredArgsConstructor
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    private static final Comparator<Booking> NEWEST_FIRST = Comparator.comparing(Booking::getStart)
+            .thenComparing(Booking::getId)
+            .reversed();
+    private static final Set<BookingState> ARCHIVED_STATES =
+            EnumSet.of(BookingState.ALL, BookingState.PAST, BookingState.REJECTED);
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Booking> findPage(BookingFilter filter) {
+        List<Booking> live = select(Booking.class, filter, filter.getOffset(), filter.getLimit());
+        if (!readsArchive(filter, live)) {
+            return live;
+        }
+
+        int window = filter.getOffset() + filter.getLimit();
+        List<Booking> recent = filter.getOffset() == 0 ? live : select(Booking.class, filter, 0, window);
+        List<Booking> archived = select(ArchivedBooking.class, filter, 0, window).stream()
+                .map(BookingMapper::toBookingFromArchivedBooking)
+                .collect(Collectors.toList());
+        return Stream.concat(recent.stream(), archived.stream())
+                .sorted(NEWEST_FIRST)
+                .skip(filter.getOffset())
+                .limit(filter.getLimit())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Archived bookings start before the horizon and sort after every live booking that does not,
+     * so a full live page that ends at or after the horizon already is the merged page.
+     */
+    private boolean readsArchive(BookingFilter filter, List<Booking> live) {
+        LocalDateTime horizon = filter.getArchivedBefore();
+        if (horizon == null || !ARCHIVED_STATES.contains(filter.getState())) {
+            return false;
+        }
+        if (filter.getRangeStart() != null && !filter.getRangeStart().isBefore(horizon)) {
+            return false;
+        }
+        return live.size() < filter.getLimit() || live.get(live.size() - 1).getStart().isBefore(horizon);
+    }
+
+    private <T> List<T> select(Class<T> type, BookingFilter filter, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> booking = query.from(type);
+        @SuppressWarnings("unchecked")
+        Join<T, Item> item = (Join<T, Item>) booking.<T, Item>fetch("item", JoinType.INNER);
+        booking.fetch("booker", JoinType.INNER);
+
+        Parameters parameters = new Parameters(cb);
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Status> status = booking.get("status");
+        List<Predicate> where = new ArrayList<>();
+
+        if (filter.getRole() == BookingFilter.Role.OWNER) {
+            where.add(cb.equal(item.get("owner").get("id"), parameters.of(Long.class, filter.getUserId())));
+        } else {
+            where.add(cb.equal(booking.get("booker").get("id"), parameters.of(Long.class, filter.getUserId())));
+        }
+
+        BookingState state = filter.getState();
+        if (state == BookingState.CURRENT) {
+            ParameterExpression<LocalDateTime> now = parameters.of(LocalDateTime.class, filter.getNow());
+            where.add(cb.lessThan(start, now));
+            where.add(cb.greaterThan(end, now));
+        } else if (state == BookingState.PAST) {
+            where.add(cb.lessThan(end, parameters.of(LocalDateTime.class, filter.getNow())));
+        } else if (state == BookingState.FUTURE) {
+            where.add(cb.greaterThan(start, parameters.of(LocalDateTime.class, filter.getNow())));
+        } else if (state == BookingState.WAITING) {
+            where.add(cb.equal(status, parameters.of(Status.class, Status.WAITING)));
+        } else if (state == BookingState.REJECTED) {
+            where.add(cb.equal(status, parameters.of(Status.class, Status.REJECTED)));
+        }
+
+        if (filter.getStatuses() != null) {
+            where.add(status.in(parameters.of(Collection.class, filter.getStatuses())));
+        }
+        if (filter.getItemIds() != null) {
+            where.add(item.get("id").in(parameters.of(Collection.class, filter.getItemIds())));
+        }
+        if (filter.getRangeStart() != null) {
+            where.add(cb.greaterThan(end, parameters.of(LocalDateTime.class, filter.getRangeStart())));
+        }
+        if (filter.getRangeEnd() != null) {
+            where.add(cb.lessThan(start, parameters.of(LocalDateTime.class, filter.getRangeEnd())));
+        }
+        if (filter.getAfter() != null) {
+            ParameterExpression<LocalDateTime> cursorStart =
+                    parameters.of(LocalDateTime.class, filter.getAfter().getStart());
+            where.add(cb.or(cb.lessThan(start, cursorStart),
+                    cb.and(cb.equal(start, cursorStart),
+                            cb.lessThan(booking.get("id"), parameters.of(Long.class, filter.getAfter().getId())))));
+        }
+
+        query.select(booking)
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(booking.get("id")));
+
+        TypedQuery<T> page = entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        parameters.bind(page);
+        return page.getResultList();
+    }
+
+    @RequiredArgsConstructor
+    private static class Parameters {
+        private final CriteriaBuilder cb;
+        private final Map<ParameterExpression<?>, Object> values = new LinkedHashMap<>();
+
+        <T> ParameterExpression<T> of(Class<T> type, Object value) {
+            ParameterExpression<T> parameter = cb.parameter(type);
+            values.put(parameter, value);
+            return parameter;
+        }
+
+        @SuppressWarnings("unchecked")
+        void bind(TypedQuery<?> query) {
+            values.forEach((parameter, value) -> query.setParameter((Parameter<Object>) parameter, value));
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingForResponse;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -10,9 +13,20 @@ public interface BookingService {
 
     BookingForResponse updateBooking(Long ownerId, Long bookingId, Boolean approved);
 
-    List<BookingForResponse> getAllUserBookings(Long userId, String state, Integer from, Integer size);
+    List<BookingDecisionResult> updateBookings(Long ownerId, List<Long> bookingIds, Boolean approved);
 
-    List<BookingForResponse> getAllOwnerBookings(Long ownerId, String state, Integer from, Integer size);
+    List<BookingForResponse> getAllUserBookings(Long userId, String state, Integer from, Integer size, String after);
+
+    List<BookingForResponse> getAllOwnerBookings(Long ownerId, String state, Integer from, Integer size,
+                                                 String after);
 
     BookingForResponse getBookingByOwner(Long userId, Long bookingId);
+
+    SseEmitter subscribeToEvents(Long userId);
+
+    /**
+     * Moves up to {@code limit} WAITING bookings that started before {@code now} to EXPIRED
+     * and returns how many were expired.
+     */
+    int expireStaleBookings(LocalDateTime now, int limit);
 }
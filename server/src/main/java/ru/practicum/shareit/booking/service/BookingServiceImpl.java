@@ -2,29 +2,41 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.BookingArchiver;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingForResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.events.BookingEvent;
+import ru.practicum.shareit.booking.events.BookingEventStream;
+import ru.practicum.shareit.booking.lock.ItemLocks;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.query.BookingFilter;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.validation.ValidationService;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,6 +46,11 @@ import java.util.stream.Collectors;
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ValidationService validationService;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final ItemLocks itemLocks;
+    private final BookingEventStream eventStream;
+    private final Outbox outbox;
+    private final BookingArchiver archiver;
 
     @Override
     public BookingForResponse createBooking(Long bookerId, CreateBookingDto createBookingDto) {
@@ -43,49 +60,114 @@ public class BookingServiceImpl implements BookingService {
             throw new NotAvailableException("Item can not be booked, because available = false.");
         }
 
+        itemLocks.lockUntilCompletion(itemFromDB.getId());
+        if (itemLocks.isClusterWide()) {
+            availabilityIndex.reload(itemFromDB.getId());
+        }
         validationService.validateBooking(createBookingDto, itemFromDB, bookerFromDb);
 
         Booking booking = BookingMapper.toBookingFromCreateBookingDto(createBookingDto);
         booking.setStatus(Status.WAITING);
         booking.setItem(itemFromDB);
         booking.setBooker(bookerFromDb);
-        return BookingMapper.toGetBookingForResponse(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        availabilityIndex.register(savedBooking);
+        publish(BookingEvent.builder()
+                .type(BookingEvent.Type.CREATED)
+                .bookingId(savedBooking.getId())
+                .itemId(itemFromDB.getId())
+                .ownerId(itemFromDB.getOwner().getId())
+                .bookerId(bookerId)
+                .status(savedBooking.getStatus())
+                .build());
+        return BookingMapper.toGetBookingForResponse(savedBooking);
     }
 
     @Override
     public BookingForResponse updateBooking(Long ownerId, Long bookingId, Boolean approved) {
-        validationService.isExistUser(ownerId);
+        validationService.checkUserExists(ownerId);
         Booking booking = validationService.isExistBooking(bookingId);
 
-        if (!Objects.equals(booking.getItem().getOwner().getId(), ownerId)) {
+        if (!Objects.equals(validationService.getItemOwnerId(booking.getItem().getId()), ownerId)) {
             throw new NotFoundException("Booking is not found");
         }
 
+        if (booking.getStatus() == Status.EXPIRED) {
+            throw new NotAvailableException("Booking has expired.");
+        }
+
         Status status;
 
         if (approved) {
             if (booking.getStatus().equals(Status.APPROVED)) {
                 throw new NotAvailableException("Booking is already approved.");
             }
+            if (booking.getStatus() != Status.WAITING) {
+                throw new NotAvailableException("Only WAITING bookings can be approved.");
+            }
             status = Status.APPROVED;
         } else {
             status = Status.REJECTED;
         }
 
         booking.setStatus(status);
+        if (status == Status.REJECTED) {
+            availabilityIndex.evict(booking.getItem().getId());
+        }
+        publish(statusChanged(booking.getId(), booking.getItem().getId(), ownerId,
+                booking.getBooker().getId(), status));
 
         return BookingMapper.toGetBookingForResponse(bookingRepository.save(booking));
     }
 
+    /**
+     * Decides all WAITING bookings among {@code bookingIds} that belong to the owner's items with one ownership
+     * query and one set-based update. Bookings that are no longer WAITING are reported and left unchanged.
+     */
+    @Override
+    public List<BookingDecisionResult> updateBookings(Long ownerId, List<Long> bookingIds, Boolean approved) {
+        validationService.checkUserExists(ownerId);
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, BookingStatusView> owned = bookingRepository.findStatusesOwnedBy(ids, ownerId).stream()
+                .collect(Collectors.toMap(BookingStatusView::getId, Function.identity()));
+        List<BookingStatusView> waiting = owned.values().stream()
+                .filter(booking -> booking.getStatus() == Status.WAITING)
+                .collect(Collectors.toList());
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+
+        if (!waiting.isEmpty()) {
+            List<Long> waitingIds = waiting.stream().map(BookingStatusView::getId).collect(Collectors.toList());
+            int updated = bookingRepository.updateStatuses(waitingIds, Status.WAITING, status);
+            if (updated != waitingIds.size()) {
+                throw new ConflictException("Bookings were changed by another request, try again.");
+            }
+            if (status == Status.REJECTED) {
+                waiting.stream()
+                        .map(BookingStatusView::getItemId)
+                        .distinct()
+                        .forEach(availabilityIndex::evict);
+            }
+            waiting.forEach(booking -> publish(statusChanged(booking.getId(), booking.getItemId(),
+                    ownerId, booking.getBookerId(), status)));
+        }
+
+        return ids.stream()
+                .map(id -> toDecision(id, owned.get(id), status))
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BookingForResponse getBookingByOwner(Long userId, Long bookingId) {
-        validationService.isExistUser(userId);
-        Booking booking = validationService.isExistBooking(bookingId);
+        validationService.checkUserExists(userId);
+        Booking booking = validationService.isExistBookingOrArchived(bookingId);
 
         Long bookerId = booking.getBooker().getId();
-        Long ownerId = booking.getItem().getOwner().getId();
-        if (userId.equals(bookerId) || userId.equals(ownerId)) {
+        if (userId.equals(bookerId) || userId.equals(validationService.getItemOwnerId(booking.getItem().getId()))) {
             return BookingMapper.toGetBookingForResponse(booking);
         }
         throw new NotFoundException("Error with booking ID = '" + bookingId
@@ -95,106 +177,108 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingForResponse> getAllUserBookings(Long userId, String state, Integer from, Integer size) {
-        User user = validationService.isExistUser(userId);
-
-        final LocalDateTime nowDateTime = LocalDateTime.now();
+    public List<BookingForResponse> getAllUserBookings(Long userId, String state, Integer from, Integer size,
+                                                       String after) {
+        validationService.checkUserExists(userId);
+        return toResponses(bookingRepository.findPage(
+                toFilter(BookingFilter.Role.BOOKER, userId, state, from, size, after)));
+    }
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingForResponse> getAllOwnerBookings(Long userId, String state, Integer from, Integer size,
+                                                        String after) {
+        validationService.checkUserExists(userId);
+        return toResponses(bookingRepository.findPage(
+                toFilter(BookingFilter.Role.OWNER, userId, state, from, size, after)));
+    }
 
-        BookingState bookingState;
-        bookingState = BookingState.valueOf(state.toUpperCase());
-        List<Booking> result = Collections.emptyList();
+    private BookingFilter toFilter(BookingFilter.Role role, Long userId, String state, Integer from, Integer size,
+                                   String after) {
+        BookingState bookingState = BookingState.valueOf(state.toUpperCase());
+        if (bookingState == BookingState.UNSUPPORTED_STATUS) {
+            throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
 
-        switch (bookingState) {
-            case ALL: {
-                result = bookingRepository.findAllByBookerOrderByStartDesc(user, pageable);
-                break;
-            }
-            case CURRENT: {
-                result = bookingRepository.findAllByBookerAndStartBeforeAndEndAfterOrderByStartDesc(
-                        user, nowDateTime, nowDateTime, pageable);
-                break;
-            }
-            case PAST: {
-                result = bookingRepository.findAllByBookerAndEndIsBeforeOrderByStartDesc(
-                        user, nowDateTime, pageable);
-                break;
-            }
-            case FUTURE: {
-                result = bookingRepository.findAllByBookerAndStartIsAfterOrderByStartDesc(
-                        user, nowDateTime, pageable);
-                break;
-            }
-            case WAITING: {
-                result = bookingRepository.findAllByBookerAndStatusEqualsOrderByStartDesc(
-                        user, Status.WAITING, pageable);
-                break;
-            }
-            case REJECTED: {
-                result = bookingRepository.findAllByBookerAndStatusEqualsOrderByStartDesc(
-                        user, Status.REJECTED, pageable);
-                break;
-            }
-            case UNSUPPORTED_STATUS: {
-                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
-            }
+        LocalDateTime now = LocalDateTime.now();
+        BookingFilter.BookingFilterBuilder filter = BookingFilter.builder()
+                .role(role)
+                .userId(userId)
+                .state(bookingState)
+                .now(now)
+                .archivedBefore(archiver.horizon(now))
+                .limit(size);
+        if (after != null) {
+            filter.after(BookingCursor.decode(after));
+        } else {
+            filter.offset(from / size * size);
         }
-        return result
-                .stream()
-                .map(BookingMapper::toGetBookingForResponse)
-                .collect(Collectors.toList());
+        return filter.build();
     }
 
-
     @Override
     @Transactional(readOnly = true)
-    public List<BookingForResponse> getAllOwnerBookings(Long userId, String state, Integer from, Integer size) {
-        final LocalDateTime nowDateTime = LocalDateTime.now();
+    public SseEmitter subscribeToEvents(Long userId) {
+        validationService.checkUserExists(userId);
+        return eventStream.subscribe(userId);
+    }
 
-        User user = validationService.isExistUser(userId);
+    @Override
+    public int expireStaleBookings(LocalDateTime now, int limit) {
+        List<BookingStatusView> stale = bookingRepository.findWaitingStartedBefore(now, limit);
+        if (stale.isEmpty()) {
+            return 0;
+        }
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
+        List<Long> ids = stale.stream().map(BookingStatusView::getId).collect(Collectors.toList());
+        List<BookingStatusView> expired = stale;
+        if (bookingRepository.updateStatuses(ids, Status.WAITING, Status.EXPIRED) != ids.size()) {
+            Set<Long> expiredIds = bookingRepository.findStatuses(ids).stream()
+                    .filter(booking -> booking.getStatus() == Status.EXPIRED)
+                    .map(BookingStatusView::getId)
+                    .collect(Collectors.toSet());
+            expired = stale.stream()
+                    .filter(booking -> expiredIds.contains(booking.getId()))
+                    .collect(Collectors.toList());
+        }
 
-        BookingState bookingState;
-        bookingState = BookingState.valueOf(state.toUpperCase());
-        List<Booking> result = Collections.emptyList();
+        expired.stream()
+                .map(BookingStatusView::getItemId)
+                .distinct()
+                .forEach(availabilityIndex::evict);
+        expired.forEach(booking -> publish(statusChanged(booking.getId(), booking.getItemId(),
+                booking.getOwnerId(), booking.getBookerId(), Status.EXPIRED)));
+        return expired.size();
+    }
 
-        switch (bookingState) {
-            case ALL: {
-                result = bookingRepository.findAllByItem_OwnerOrderByStartDesc(user, pageable);
-                break;
-            }
-            case CURRENT: {
-                result = bookingRepository.findAllByItem_OwnerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        user, nowDateTime, nowDateTime, pageable);
-                break;
-            }
-            case PAST: {
-                result = bookingRepository.findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(
-                        user, nowDateTime, pageable);
-                break;
-            }
-            case FUTURE: {
-                result = bookingRepository.findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(
-                        user, nowDateTime, pageable);
-                break;
-            }
-            case WAITING: {
-                result = bookingRepository.findAllByItem_OwnerAndStatusEqualsOrderByStartDesc(
-                        user, Status.WAITING, pageable);
-                break;
-            }
-            case REJECTED: {
-                result = bookingRepository.findAllByItem_OwnerAndStatusEqualsOrderByStartDesc(
-                        user, Status.REJECTED, pageable);
-                break;
-            }
-            case UNSUPPORTED_STATUS: {
-                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
-            }
+    private void publish(BookingEvent event) {
+        outbox.record(Outbox.BOOKING, event.getBookingId(), event.getType().name(), event);
+    }
+
+    private BookingEvent statusChanged(Long bookingId, Long itemId, Long ownerId, Long bookerId, Status status) {
+        return BookingEvent.builder()
+                .type(BookingEvent.Type.STATUS_CHANGED)
+                .bookingId(bookingId)
+                .itemId(itemId)
+                .ownerId(ownerId)
+                .bookerId(bookerId)
+                .status(status)
+                .build();
+    }
+
+    private BookingDecisionResult toDecision(Long bookingId, BookingStatusView booking, Status status) {
+        BookingDecisionResult.BookingDecisionResultBuilder result = BookingDecisionResult.builder().bookingId(bookingId);
+        if (booking == null) {
+            return result.outcome(BookingDecisionResult.Outcome.NOT_FOUND).build();
         }
-        return result.stream()
+        if (booking.getStatus() != Status.WAITING) {
+            return result.outcome(BookingDecisionResult.Outcome.NOT_WAITING).status(booking.getStatus()).build();
+        }
+        return result.outcome(BookingDecisionResult.Outcome.UPDATED).status(status).build();
+    }
+
+    private List<BookingForResponse> toResponses(List<Booking> bookings) {
+        return bookings.stream()
                 .map(BookingMapper::toGetBookingForResponse)
                 .collect(Collectors.toList());
     }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Admin bulk imports. Only served by the server, not through the gateway.
+ * The body is read as it arrives, so a file of any size is imported in bounded memory.
+ */
+@RestController
+@RequestMapping(path = "/admin/imports")
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportController {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final BulkImportService bulkImportService;
+
+    @PostMapping("/users")
+    public ImportReport importUsers(
+            @RequestHeader(name = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        log.info("Importing Users");
+        ImportFormat format = ImportFormat.fromContentType(contentType);
+        return bulkImportService.importUsers(decode(body, contentEncoding), format);
+    }
+
+    @PostMapping("/items")
+    public ImportReport importItems(
+            @RequestHeader(name = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        log.info("Importing Items");
+        ImportFormat format = ImportFormat.fromContentType(contentType);
+        return bulkImportService.importItems(decode(body, contentEncoding), format);
+    }
+
+    private static InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        return "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, GZIP_BUFFER_SIZE) : body;
+    }
+}
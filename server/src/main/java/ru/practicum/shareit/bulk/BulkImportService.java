@@ -0,0 +1,327 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.events.ItemEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchDocument;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.dto.CreateUpdateUserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validation.CreateObject;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users and items from a streamed NDJSON or CSV body. Rows are bound and validated as they are read and
+ * written in chunks: one query resolves the owners (or e-mails) a chunk refers to, then the chunk is inserted with
+ * a single JDBC batch in its own transaction. A chunk the database rejects is retried row by row, so one bad row
+ * costs only itself. Chunks that were written stay written when a later one fails.
+ */
+@Service
+@Slf4j
+public class BulkImportService {
+    private static final String INSERT_USER = "insert into users (id, name, email) values (?, ?, ?)";
+    private static final String INSERT_ITEM = "insert into items (id, name, description, owner_id, is_available, "
+            + "request_id) values (?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex searchIndex;
+    private final Outbox outbox;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public BulkImportService(UserRepository userRepository,
+                             ItemRequestRepository itemRequestRepository,
+                             ItemSearchIndex searchIndex,
+                             Outbox outbox,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.import.chunk-size:500}") int chunkSize,
+                             @Value("${shareit.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.searchIndex = searchIndex;
+        this.outbox = outbox;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportReport importUsers(InputStream body, ImportFormat format) throws IOException {
+        return run("users", body, format, CreateUpdateUserDto.class,
+                new Class<?>[]{CreateObject.class, Default.class}, this::writeUsers);
+    }
+
+    public ImportReport importItems(InputStream body, ImportFormat format) throws IOException {
+        return run("items", body, format, ItemImportRow.class, new Class<?>[]{Default.class}, this::writeItems);
+    }
+
+    private <T> ImportReport run(String table, InputStream body, ImportFormat format, Class<T> type,
+                                 Class<?>[] groups, BiConsumer<List<Row<T>>, Progress> writer) throws IOException {
+        long startedAt = System.nanoTime();
+        Progress progress = new Progress(maxReportedErrors);
+        List<Row<T>> chunk = new ArrayList<>(chunkSize);
+        try (RowSource source = format.open(body, objectMapper)) {
+            for (RawRow raw = source.next(); raw != null; raw = source.next()) {
+                progress.rows++;
+                T value = bind(raw, type, groups, progress);
+                if (value == null) {
+                    continue;
+                }
+                chunk.add(new Row<>(raw.getNumber(), value));
+                if (chunk.size() == chunkSize) {
+                    writer.accept(chunk, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writer.accept(chunk, progress);
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        progress.errors.sort(Comparator.comparingLong(ImportReport.RowError::getRow));
+        Counter.builder("imports.rows").tag("table", table).tag("outcome", "imported")
+                .register(meterRegistry).increment(progress.imported);
+        Counter.builder("imports.rows").tag("table", table).tag("outcome", "failed")
+                .register(meterRegistry).increment(progress.failed);
+        ImportReport report = ImportReport.builder()
+                .rows(progress.rows)
+                .imported(progress.imported)
+                .failed(progress.failed)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(elapsedNanos > 0 ? progress.rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0)
+                .errors(progress.errors)
+                .errorsTruncated(progress.failed > progress.errors.size())
+                .build();
+        log.info("Imported {} of {} {} rows in {} ms ({} rows/s)", report.getImported(), report.getRows(), table,
+                report.getElapsedMillis(), report.getRowsPerSecond());
+        return report;
+    }
+
+    private <T> T bind(RawRow raw, Class<T> type, Class<?>[] groups, Progress progress) {
+        if (raw.getError() != null) {
+            progress.fail(raw.getNumber(), raw.getError());
+            return null;
+        }
+        T value;
+        try {
+            value = objectMapper.treeToValue(raw.getFields(), type);
+        } catch (JsonProcessingException e) {
+            progress.fail(raw.getNumber(), "Invalid value: " + e.getOriginalMessage());
+            return null;
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(value, groups);
+        if (!violations.isEmpty()) {
+            progress.fail(raw.getNumber(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return value;
+    }
+
+    private void writeUsers(List<Row<CreateUpdateUserDto>> chunk, Progress progress) {
+        Set<String> taken = new HashSet<>(userRepository.findExistingEmails(chunk.stream()
+                .map(row -> row.getValue().getEmail())
+                .collect(Collectors.toSet())));
+        List<Row<CreateUpdateUserDto>> accepted = new ArrayList<>(chunk.size());
+        for (Row<CreateUpdateUserDto> row : chunk) {
+            String email = row.getValue().getEmail();
+            if (!taken.add(email)) {
+                progress.fail(row.getNumber(), "Email " + email + " is already in use");
+            } else {
+                accepted.add(row);
+            }
+        }
+        insert(accepted, progress, this::insertUsers);
+    }
+
+    private void insertUsers(List<Row<CreateUpdateUserDto>> rows) {
+        Iterator<Long> ids = nextIds(User.class, rows.size()).iterator();
+        jdbcTemplate.batchUpdate(INSERT_USER, rows, rows.size(), (statement, row) -> {
+            statement.setLong(1, ids.next());
+            statement.setString(2, row.getValue().getName());
+            statement.setString(3, row.getValue().getEmail());
+        });
+    }
+
+    private void writeItems(List<Row<ItemImportRow>> chunk, Progress progress) {
+        Set<Long> owners = new HashSet<>(userRepository.findExistingIds(chunk.stream()
+                .map(row -> row.getValue().getOwnerId())
+                .collect(Collectors.toSet())));
+        Set<Long> requestIds = chunk.stream()
+                .map(row -> row.getValue().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> requests = requestIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(itemRequestRepository.findExistingIds(requestIds));
+        List<Row<ItemImportRow>> accepted = new ArrayList<>(chunk.size());
+        for (Row<ItemImportRow> row : chunk) {
+            ItemImportRow item = row.getValue();
+            if (!owners.contains(item.getOwnerId())) {
+                progress.fail(row.getNumber(), "Owner " + item.getOwnerId() + " not found");
+            } else if (item.getRequestId() != null && !requests.contains(item.getRequestId())) {
+                progress.fail(row.getNumber(), "Request " + item.getRequestId() + " not found");
+            } else {
+                accepted.add(row);
+            }
+        }
+        insert(accepted, progress, this::insertItems);
+    }
+
+    /**
+     * Inserts the items with one batch, then indexes them for search and records their creation events,
+     * as creating them one by one would.
+     */
+    private void insertItems(List<Row<ItemImportRow>> rows) {
+        List<Long> ids = nextIds(Item.class, rows.size());
+        jdbcTemplate.batchUpdate(INSERT_ITEM, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                ItemImportRow item = rows.get(i).getValue();
+                statement.setLong(1, ids.get(i));
+                statement.setString(2, item.getName());
+                statement.setString(3, item.getDescription());
+                statement.setLong(4, item.getOwnerId());
+                statement.setBoolean(5, item.getAvailable());
+                statement.setObject(6, item.getRequestId(), Types.BIGINT);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+
+        List<SearchDocument> documents = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ItemImportRow item = rows.get(i).getValue();
+            Long id = ids.get(i);
+            documents.add(new SearchDocument(id, item.getName(), item.getDescription(), item.getAvailable()));
+            outbox.record(Outbox.ITEM, id, ItemEvent.Type.CREATED.name(), ItemEvent.builder()
+                    .type(ItemEvent.Type.CREATED)
+                    .itemId(id)
+                    .ownerId(item.getOwnerId())
+                    .build());
+        }
+        searchIndex.indexAll(documents);
+    }
+
+    /**
+     * Draws ids from the entity's own pooled generator, so imported rows share its blocks with the ids
+     * Hibernate assigns on persist instead of spending a sequence call per row.
+     */
+    private List<Long> nextIds(Class<?> entityType, int count) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = session.getFactory().getMetamodel()
+                .entityPersister(entityType)
+                .getIdentifierGenerator();
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add((Long) generator.generate(session, null));
+        }
+        return ids;
+    }
+
+    private <T> void insert(List<Row<T>> rows, Progress progress, Consumer<List<Row<T>>> inserter) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> inserter.accept(rows));
+            progress.imported += rows.size();
+        } catch (DataIntegrityViolationException e) {
+            if (rows.size() == 1) {
+                progress.fail(rows.get(0).getNumber(), "Rejected by the database: "
+                        + Objects.requireNonNull(NestedExceptionUtils.getMostSpecificCause(e)).getMessage());
+                return;
+            }
+            log.info("Import chunk of {} rows rejected, retrying row by row: {}", rows.size(), e.getMessage());
+            for (Row<T> row : rows) {
+                insert(List.of(row), progress, inserter);
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Row<T> {
+        private final long number;
+        private final T value;
+    }
+
+    private static class Progress {
+        private final int maxErrors;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportReport.RowError(row, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV whose first record names the columns. Quoted values may contain separators, doubled quotes and
+ * line breaks. Empty values are left out, so they bind as {@code null}. Row numbers count data records.
+ * An unterminated quote swallows the rest of the body, so it is reported as the last row.
+ */
+class CsvRowSource implements RowSource {
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final List<String> columns;
+    private long record;
+    private int pending = EOF;
+    private boolean pendingSet;
+    private boolean broken;
+
+    CsvRowSource(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new ValidationException("CSV header is missing");
+        }
+        this.columns = header;
+    }
+
+    @Override
+    public RawRow next() throws IOException {
+        if (broken) {
+            return null;
+        }
+        List<String> values;
+        try {
+            values = readRecord();
+        } catch (ValidationException e) {
+            broken = true;
+            return new RawRow(record + 1, null, e.getMessage());
+        }
+        if (values == null) {
+            return null;
+        }
+        record++;
+        if (values.size() != columns.size()) {
+            return new RawRow(record, null, String.format("Expected %d values, found %d",
+                    columns.size(), values.size()));
+        }
+        ObjectNode fields = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < columns.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                fields.put(columns.get(i), values.get(i));
+            }
+        }
+        return new RawRow(record, fields, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == EOF) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new ValidationException("Unterminated quoted CSV value in record " + (record + 1));
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        value.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    value.append((char) c);
+                }
+            } else if (c == '"' && value.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                values.add(value.toString());
+                return values;
+            } else {
+                value.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pendingSet) {
+            pendingSet = false;
+            return pending;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+        pendingSet = true;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV;
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+    public static ImportFormat fromContentType(String contentType) {
+        try {
+            MediaType mediaType = contentType != null ? MediaType.parseMediaType(contentType) : null;
+            if (mediaType != null && MediaType.APPLICATION_NDJSON.includes(mediaType)) {
+                return NDJSON;
+            }
+            if (mediaType != null && TEXT_CSV.includes(mediaType)) {
+                return CSV;
+            }
+        } catch (InvalidMediaTypeException e) {
+            // reported below like any other unsupported type
+        }
+        throw new ValidationException("Import body must be application/x-ndjson or text/csv, got " + contentType);
+    }
+
+    RowSource open(InputStream body, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return this == NDJSON ? new NdjsonRowSource(reader, objectMapper) : new CsvRowSource(reader);
+    }
+}
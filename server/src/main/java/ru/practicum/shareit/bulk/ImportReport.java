@@ -0,0 +1,28 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of one import. Only the first errors are listed; {@code errorsTruncated} tells when there were more.
+ */
+@Data
+@Builder
+public class ImportReport {
+    private long rows;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Value
+    public static class RowError {
+        long row;
+        String message;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportRow {
+    @NotNull
+    private Long ownerId;
+
+    @NotBlank
+    @Size(max = 255)
+    private String name;
+
+    @NotBlank
+    @Size(max = 512)
+    private String description;
+
+    @NotNull
+    private Boolean available;
+
+    private Long requestId;
+}
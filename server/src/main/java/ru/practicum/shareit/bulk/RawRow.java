@@ -0,0 +1,15 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Value;
+
+/**
+ * One input record before binding: its 1-based position in the body and either its fields or why they could not
+ * be read.
+ */
+@Value
+class RawRow {
+    long number;
+    ObjectNode fields;
+    String error;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an import body one record at a time. A malformed record becomes a {@link RawRow} with an error instead of
+ * ending the import.
+ */
+interface RowSource extends Closeable {
+
+    /**
+     * The next record, or {@code null} at the end of the body.
+     */
+    RawRow next() throws IOException;
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.config;
 
 import org.h2.tools.Server;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,6 +11,7 @@ import java.sql.SQLException;
 public class BeanConfig {
 
     @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "shareit.h2.tcp-server", name = "enabled", matchIfMissing = true)
     public Server inMemoryH2DatabaseaServer() throws SQLException {
         return Server.createTcpServer("-tcp", "-tcpAllowOthers", "-tcpPort", "8080");
     }
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.common.VirtualThreads;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual-thread execution mode, enabled with {@code shareit.execution.mode=virtual}.
+ * Tomcat hands every request to a new virtual thread, and JDBC access is gated so that
+ * at most {@code shareit.execution.jdbc-permits} threads (the Hikari pool size by default) hold or wait on the pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.execution", name = "mode", havingValue = "virtual")
+@Slf4j
+public class ExecutionConfig {
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        log.info("Handling requests on virtual threads");
+        return VirtualThreads.newPerTaskExecutor("http-virtual-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandler(
+            ExecutorService requestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSource(
+            @Value("${shareit.execution.jdbc-permits:0}") int jdbcPermits,
+            @Value("${shareit.execution.jdbc-acquire-timeout:30s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource)) {
+                    return bean;
+                }
+                HikariDataSource hikari = (HikariDataSource) bean;
+                int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+                int permits = jdbcPermits > 0 ? jdbcPermits : poolSize;
+                log.info("Limiting concurrent JDBC access to {} connections", permits);
+                return new ConnectionLimitingDataSource(hikari, permits, acquireTimeout);
+            }
+        };
+    }
+}
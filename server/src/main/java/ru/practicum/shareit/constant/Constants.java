@@ -8,7 +8,14 @@ import java.util.Comparator;
 @UtilityClass
 public class Constants {
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     public static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+    public static final String EXPORT_FETCH_SIZE = "500";
+    /**
+     * Id block size the sequences are created with by default. Hibernate follows the sequence's own
+     * increment when the two differ, see {@code shareit.ids.allocation-size}.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
 
     public static final Comparator<Booking> orderByStartDateDesc = (a, b) -> {
         if (a.getStart().isAfter(b.getStart())) {
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Admin exports for reporting jobs. Only served by the server, not through the gateway.
+ * Responses are gzip-compressed on the fly when the client accepts it.
+ */
+@RestController
+@RequestMapping(path = "/admin/exports")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+
+    @GetMapping("/items")
+    public ResponseEntity<StreamingResponseBody> exportItems(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "ownerId", required = false) Long ownerId,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Exporting Items");
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return respond("items", exportFormat, acceptEncoding, exportService.exportItems(ownerId, exportFormat));
+    }
+
+    @GetMapping("/bookings")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "ownerId", required = false) Long ownerId,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Exporting Bookings");
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return respond("bookings", exportFormat, acceptEncoding,
+                exportService.exportBookings(ownerId, exportFormat));
+    }
+
+    @GetMapping("/comments")
+    public ResponseEntity<StreamingResponseBody> exportComments(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "ownerId", required = false) Long ownerId,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Exporting Comments");
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return respond("comments", exportFormat, acceptEncoding,
+                exportService.exportComments(ownerId, exportFormat));
+    }
+
+    private ResponseEntity<StreamingResponseBody> respond(String table, ExportFormat format, String acceptEncoding,
+                                                          StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(table + format.getExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null || !acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            return response.body(body);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(out -> {
+                    GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                    body.writeTo(gzip);
+                    gzip.finish();
+                });
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, ".ndjson"),
+    CSV(new MediaType("text", "csv"), ".csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    public static ExportFormat from(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new ValidationException("Unknown export format: " + value);
+    }
+
+    RowWriter open(JsonFactory jsonFactory, OutputStream out, List<String> columns) throws IOException {
+        return this == NDJSON ? new NdjsonRowWriter(jsonFactory, out, columns) : new CsvRowWriter(out, columns);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.export;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static ru.practicum.shareit.constant.Constants.DATE_PATTERN;
+
+/**
+ * Text form of non-numeric export values; timestamps match the JSON API.
+ */
+@UtilityClass
+class ExportValues {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_PATTERN);
+
+    String toText(Object value) {
+        if (value instanceof LocalDateTime) {
+            return DATE_FORMATTER.format((LocalDateTime) value);
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return value.toString();
+    }
+}
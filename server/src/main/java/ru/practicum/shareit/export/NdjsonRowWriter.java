@@ -0,0 +1,49 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * One JSON object per line, written field by field without an intermediate object.
+ * Shared by the exports and the user stream.
+ */
+public class NdjsonRowWriter implements RowWriter {
+    private final JsonGenerator generator;
+    private final String[] columns;
+
+    public NdjsonRowWriter(JsonFactory jsonFactory, OutputStream out, List<String> columns) throws IOException {
+        this.generator = jsonFactory.createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+        this.columns = columns.toArray(String[]::new);
+    }
+
+    @Override
+    public void write(Object[] row) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            generator.writeFieldName(columns[i]);
+            Object value = row[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Long || value instanceof Integer) {
+                generator.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Boolean) {
+                generator.writeBoolean((Boolean) value);
+            } else {
+                generator.writeString(ExportValues.toText(value));
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
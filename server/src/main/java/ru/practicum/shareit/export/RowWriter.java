@@ -0,0 +1,13 @@
+package ru.practicum.shareit.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Serializes export rows one at a time. Closing flushes buffered output but leaves the target stream open,
+ * so a caller can still finish a wrapping compressor.
+ */
+interface RowWriter extends Closeable {
+
+    void write(Object[] row) throws IOException;
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.comment;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.*;
+import ru.practicum.shareit.constant.Constants;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -20,7 +21,8 @@ import static ru.practicum.shareit.constant.Constants.DATE_PATTERN;
 @Builder(toBuilder = true)
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_seq")
+    @SequenceGenerator(name = "comment_seq", sequenceName = "comment_seq", allocationSize = Constants.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "content", nullable = false, length = 512)
@@ -13,6 +13,15 @@ public class CommentDtoMapper {
                 .build();
     }
 
+    public CommentDto toCommentDto(CommentView comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .created(comment.getCreated())
+                .authorName(comment.getAuthorName())
+                .build();
+    }
+
     public Comment toCommentFromCreateCommentDto(CreateCommentDto commentDto) {
         return Comment.builder()
                 .text(commentDto.getText())
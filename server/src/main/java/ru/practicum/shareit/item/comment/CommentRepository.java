@@ -1,8 +1,34 @@
 package ru.practicum.shareit.item.comment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static ru.practicum.shareit.constant.Constants.EXPORT_FETCH_SIZE;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @Query("select c.item.id as itemId, c.id as id, c.text as text, a.name as authorName, c.created as created "
+            + "from Comment c join c.author a "
+            + "where c.item.id in :itemIds")
+    List<CommentView> findAllViewsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Export rows (id, itemId, authorId, text, created) in id order.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select c.id, c.item.id, c.author.id, c.text, c.created from Comment c order by c.id")
+    Stream<Object[]> streamExportRows();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select c.id, i.id, c.author.id, c.text, c.created from Comment c join c.item i "
+            + "where i.owner.id = :ownerId order by c.id")
+    Stream<Object[]> streamExportRowsByOwnerId(@Param("ownerId") Long ownerId);
 }
@@ -2,17 +2,22 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateUpdateItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemForResponseDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.validation.CreateObject;
 import ru.practicum.shareit.validation.UpdateObject;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.constant.Constants.USER_ID_HEADER;
@@ -54,6 +59,17 @@ public class ItemController {
         return itemService.getItemById(ownerId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@RequestHeader(USER_ID_HEADER) Long userId,
+                                               @PathVariable Long itemId,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Getting availability of Item ID: {}", itemId);
+        return itemService.getAvailability(userId, itemId, from, to);
+    }
+
     @DeleteMapping("/{itemId}")
     public void deleteItem(@RequestHeader(value = USER_ID_HEADER) Long ownerId,
                            @PathVariable Long itemId) {
@@ -63,9 +79,11 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemForResponseDto> searchItem(@RequestHeader(value = USER_ID_HEADER) Long ownerId,
-                                               @RequestParam(value = "text", required = false) String text) {
+                                               @RequestParam(value = "text", required = false) String text,
+                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                               @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
         log.info("Search Items by incoming Text");
-        return itemService.searchItem(ownerId, text);
+        return itemService.searchItem(ownerId, text, from, size);
     }
 
 
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.events;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+public class ItemEvent {
+    Type type;
+    Long itemId;
+    Long ownerId;
+    Long commentId;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        COMMENTED
+    }
+}
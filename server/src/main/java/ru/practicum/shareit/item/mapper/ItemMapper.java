@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
@@ -8,6 +9,7 @@ import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentDtoMapper;
 import ru.practicum.shareit.item.dto.CreateUpdateItemDto;
 import ru.practicum.shareit.item.dto.ItemForResponseDto;
+import ru.practicum.shareit.item.dto.ItemShortView;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Item;
 
@@ -33,6 +35,10 @@ public class ItemMapper {
                     .collect(Collectors.toSet()));
         }
 
+        return toGetItemDtoFromItem(item, comments);
+    }
+
+    public ItemForResponseDto toGetItemDtoFromItem(Item item, List<CommentDto> comments) {
         return ItemForResponseDto.builder()
                 .id(item.getId())
                 .name(item.getName())
@@ -73,6 +79,20 @@ public class ItemMapper {
         return getItemDto;
     }
 
+    public ItemForResponseDto toItemForResponseDto(ItemShortView item, BookingShortView lastBooking,
+                                                   BookingShortView nextBooking, List<CommentDto> comments) {
+        return ItemForResponseDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .lastBooking(BookingMapper.toBookingForItemDto(lastBooking))
+                .nextBooking(BookingMapper.toBookingForItemDto(nextBooking))
+                .comments(comments)
+                .requestId(item.getRequestId())
+                .build();
+    }
+
     public Item toGetItemFromCreateUpdateItemDto(CreateUpdateItemDto createUpdateItemDto) {
         return Item.builder()
                 .name(createUpdateItemDto.getName())
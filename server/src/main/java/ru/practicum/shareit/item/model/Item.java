@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.model;
 
 import lombok.*;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.constant.Constants;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.user.model.User;
 
@@ -20,7 +21,8 @@ import java.util.Set;
 @Builder(toBuilder = true)
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = Constants.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "name", nullable = false)
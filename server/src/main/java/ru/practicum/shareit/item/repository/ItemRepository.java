@@ -2,29 +2,55 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemShortView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchDocument;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static ru.practicum.shareit.constant.Constants.EXPORT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    @Query("select item from Item item "
-            + "where lower(item.name) like lower(concat('%', :text, '%')) "
-            + "or lower(item.description) like lower(concat('%', :text, '%'))" +
-            " and item.available = true ")
-    List<Item> searchItems(@Param("text") String text);
+    @Query("select new ru.practicum.shareit.item.search.SearchDocument(i.id, i.name, i.description, i.available) "
+            + "from Item i")
+    List<SearchDocument> findAllSearchDocuments();
 
-    @Query("select i " +
-            "from Item i " +
-            "join fetch i.owner " +
-            "where i.owner.id = :id ")
-    List<Item> findAllByOwnerIdWithBookings(@Param("id") Long userId);
+    @Query("select new ru.practicum.shareit.item.search.SearchDocument(i.id, i.name, i.description, i.available) "
+            + "from Item i where i.id = :id")
+    Optional<SearchDocument> findSearchDocumentById(@Param("id") Long itemId);
+
+    @Query("select i.id as id, i.name as name, i.description as description, "
+            + "i.available as available, i.requestId as requestId "
+            + "from Item i "
+            + "where i.owner.id = :id "
+            + "order by i.id")
+    List<ItemShortView> findAllShortByOwnerId(@Param("id") Long userId);
+
+    @Query("select i.owner.id from Item i where i.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long itemId);
 
     @Query("select i " +
             "from Item i " +
             "join fetch i.owner " +
             "where i.id = :id ")
     Optional<Item> findByIdWithOwner(@Param("id") Long itemId);
+
+    /**
+     * Export rows (id, name, description, available, ownerId, requestId) in id order.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select i.id, i.name, i.description, i.available, i.owner.id, i.requestId from Item i order by i.id")
+    Stream<Object[]> streamExportRows();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select i.id, i.name, i.description, i.available, i.owner.id, i.requestId from Item i "
+            + "where i.owner.id = :ownerId order by i.id")
+    Stream<Object[]> streamExportRowsByOwnerId(@Param("ownerId") Long ownerId);
 }
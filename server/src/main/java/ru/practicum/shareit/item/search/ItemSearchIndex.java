@@ -0,0 +1,217 @@
+package ru.practicum.shareit.item.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.events.ItemEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxMessage;
+import ru.practicum.shareit.outbox.OutboxSubscriber;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory trigram index over item names and descriptions.
+ * Substring queries only verify items sharing every query trigram, so the cost follows the number of matches
+ * instead of the catalog size; queries shorter than one trigram match nothing.
+ * <p>
+ * Each node keeps its own copy. The writing node updates it after commit so its next search sees the change,
+ * and every node applies the item events from the outbox, reloading the item so a late or repeated event
+ * cannot put back an older version.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex implements OutboxSubscriber {
+    public static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, SearchDocument> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    public ItemSearchIndex(ItemRepository itemRepository, ObjectMapper objectMapper) {
+        this.itemRepository = itemRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        if (text.length() < GRAM) {
+            return Collections.emptyList();
+        }
+        ensureLoaded();
+        String query = text.toLowerCase(Locale.ROOT);
+        Comparator<SearchDocument> byRelevance = Comparator
+                .comparingInt((SearchDocument document) -> document.score(query)).reversed()
+                .thenComparing(SearchDocument::getId);
+
+        lock.readLock().lock();
+        try {
+            return candidates(query).stream()
+                    .map(documents::get)
+                    .filter(document -> document != null && document.isAvailable() && document.score(query) > 0)
+                    .sorted(byRelevance)
+                    .skip(from)
+                    .limit(size)
+                    .map(SearchDocument::getId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Item item) {
+        SearchDocument document = new SearchDocument(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable());
+        TransactionUtils.afterCommit(() -> put(document));
+    }
+
+    public void indexAll(Collection<SearchDocument> batch) {
+        TransactionUtils.afterCommit(() -> putAll(batch));
+    }
+
+    public void remove(Long itemId) {
+        TransactionUtils.afterCommit(() -> delete(itemId));
+    }
+
+    @Override
+    public boolean supports(String aggregateType) {
+        return Outbox.ITEM.equals(aggregateType);
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        ItemEvent event;
+        try {
+            event = objectMapper.readValue(message.getPayload(), ItemEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed item event " + message.getId(), e);
+        }
+        if (event.getType() == ItemEvent.Type.COMMENTED) {
+            return;
+        }
+        itemRepository.findSearchDocumentById(event.getItemId())
+                .ifPresentOrElse(this::put, () -> delete(event.getItemId()));
+    }
+
+    private Set<Long> candidates(String query) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                itemRepository.findAllSearchDocuments().forEach(this::putUnlocked);
+                loaded = true;
+                log.info("Item search index loaded: {} items, {} trigrams", documents.size(), postings.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            deleteUnlocked(document.getId());
+            putUnlocked(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putAll(Collection<SearchDocument> batch) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            for (SearchDocument document : batch) {
+                deleteUnlocked(document.getId());
+                putUnlocked(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void delete(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            deleteUnlocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putUnlocked(SearchDocument document) {
+        documents.put(document.getId(), document);
+        for (String gram : grams(document)) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.getId());
+        }
+    }
+
+    private void deleteUnlocked(Long itemId) {
+        SearchDocument previous = documents.remove(itemId);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(itemId) && ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(SearchDocument document) {
+        Set<String> grams = grams(document.getName());
+        grams.addAll(grams(document.getDescription()));
+        return grams;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
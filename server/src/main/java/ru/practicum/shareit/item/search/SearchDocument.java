@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+@Getter
+public class SearchDocument {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final boolean available;
+
+    public SearchDocument(Long id, String name, String description, Boolean available) {
+        this.id = id;
+        this.name = name == null ? "" : name.toLowerCase(Locale.ROOT);
+        this.description = description == null ? "" : description.toLowerCase(Locale.ROOT);
+        this.available = Boolean.TRUE.equals(available);
+    }
+
+    int score(String query) {
+        int score = 0;
+        if (name.startsWith(query)) {
+            score += 3;
+        } else if (name.contains(query)) {
+            score += 2;
+        }
+        if (description.contains(query)) {
+            score += 1;
+        }
+        return score;
+    }
+}
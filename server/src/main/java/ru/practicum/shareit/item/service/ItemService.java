@@ -3,8 +3,10 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateUpdateItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemForResponseDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -18,8 +20,10 @@ public interface ItemService {
 
     void deleteItem(Long ownerId, Long itemId);
 
-    List<ItemForResponseDto> searchItem(Long ownerId, String str);
+    List<ItemForResponseDto> searchItem(Long ownerId, String str, Integer from, Integer size);
 
     CommentDto createComment(Long bookerId, Long itemId, CreateCommentDto commentDto);
 
+    ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
+
 }
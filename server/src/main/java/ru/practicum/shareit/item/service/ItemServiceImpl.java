@@ -4,22 +4,39 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.TimeRange;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.*;
 import ru.practicum.shareit.item.dto.CreateUpdateItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemForResponseDto;
+import ru.practicum.shareit.item.dto.ItemShortView;
+import ru.practicum.shareit.item.events.ItemEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.validation.ExistenceCache;
 import ru.practicum.shareit.validation.ValidationService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,26 +44,62 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class ItemServiceImpl implements ItemService {
+    private static final Duration DEFAULT_AVAILABILITY_WINDOW = Duration.ofDays(30);
+    private static final Duration MAX_AVAILABILITY_WINDOW = Duration.ofDays(366);
+
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final ValidationService validationService;
+    private final ItemSearchIndex searchIndex;
+    private final ExistenceCache existenceCache;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final Outbox outbox;
 
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemForResponseDto> getAllItems(Long userId) {
-        validationService.isExistUser(userId);
-        List<Item> allItems = itemRepository.findAllByOwnerIdWithBookings(userId);
+        validationService.checkUserExists(userId);
+        List<ItemShortView> allItems = itemRepository.findAllShortByOwnerId(userId);
         log.info("All items are shown");
-        if (!allItems.isEmpty() && Objects.equals(allItems.get(0).getOwner().getId(), userId)) {
-            return allItems.stream()
-                    .map(ItemMapper::toItemWIthBookingDto)
-                    .collect(Collectors.toList());
-        } else {
-            return allItems.stream()
-                    .map(ItemMapper::toGetItemDtoFromItem)
-                    .collect(Collectors.toList());
+        if (allItems.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = allItems.stream()
+                .map(ItemShortView::getId)
+                .collect(Collectors.toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortView> lastBookings = new HashMap<>();
+        Map<Long, BookingShortView> nextBookings = new HashMap<>();
+        for (BookingShortView booking : bookingRepository.findLastAndNextApproved(itemIds, now)) {
+            if (BookingShortView.LAST.equals(booking.getKind())) {
+                lastBookings.put(booking.getItemId(), booking);
+            } else {
+                nextBookings.put(booking.getItemId(), booking);
+            }
+        }
+        List<Long> withoutLiveLast = itemIds.stream()
+                .filter(id -> !lastBookings.containsKey(id))
+                .collect(Collectors.toList());
+        if (!withoutLiveLast.isEmpty()) {
+            archivedBookingRepository.findLastApproved(withoutLiveLast, now)
+                    .forEach(booking -> lastBookings.put(booking.getItemId(), booking));
         }
+
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllViewsByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId,
+                        Collectors.mapping(CommentDtoMapper::toCommentDto, Collectors.toList())));
+
+        return allItems.stream()
+                .map(item -> ItemMapper.toItemForResponseDto(item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        comments.getOrDefault(item.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -57,8 +110,11 @@ public class ItemServiceImpl implements ItemService {
 
         Item newItem = ItemMapper.toGetItemFromCreateUpdateItemDto(item);
         newItem.setOwner(owner);
-        log.info("New item {} created", newItem.getId());
-        return ItemMapper.toGetItemDtoFromItem(itemRepository.save(newItem));
+        Item savedItem = itemRepository.save(newItem);
+        searchIndex.index(savedItem);
+        publish(ItemEvent.Type.CREATED, savedItem.getId(), ownerId, null);
+        log.info("New item {} created", savedItem.getId());
+        return ItemMapper.toGetItemDtoFromItem(savedItem);
     }
 
     @Override
@@ -78,17 +134,27 @@ public class ItemServiceImpl implements ItemService {
         if (updateItem.getAvailable() != null) {
             item.setAvailable(updateItem.getAvailable());
         }
-        return ItemMapper.toGetItemDtoFromItem(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        searchIndex.index(savedItem);
+        existenceCache.evictItem(itemId);
+        publish(ItemEvent.Type.UPDATED, itemId, ownerId, null);
+        return ItemMapper.toGetItemDtoFromItem(savedItem);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemForResponseDto getItemById(Long ownerId, Long itemId) {
-        validationService.isExistUser(ownerId);
+        validationService.checkUserExists(ownerId);
         Item existItem = validationService.isExistItem(itemId);
         log.info("Item is shown");
         if (Objects.equals(existItem.getOwner().getId(), ownerId)) {
-            return ItemMapper.toItemWIthBookingDto(existItem);
+            ItemForResponseDto itemDto = ItemMapper.toItemWIthBookingDto(existItem);
+            if (itemDto.getLastBooking() == null) {
+                archivedBookingRepository.findLastApproved(List.of(itemId), LocalDateTime.now()).stream()
+                        .findFirst()
+                        .ifPresent(booking -> itemDto.setLastBooking(BookingMapper.toBookingForItemDto(booking)));
+            }
+            return itemDto;
         } else {
             return ItemMapper.toGetItemDtoFromItem(existItem);
         }
@@ -96,26 +162,47 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public void deleteItem(Long ownerId, Long itemId) {
-        validationService.isExistUser(ownerId);
-        validationService.isExistItem(itemId);
+        validationService.checkUserExists(ownerId);
+        Long itemOwnerId = validationService.getItemOwnerId(itemId);
         log.info("Item is deleted: {}", itemId);
         itemRepository.deleteById(itemId);
+        searchIndex.remove(itemId);
+        existenceCache.evictItem(itemId);
+        publish(ItemEvent.Type.DELETED, itemId, itemOwnerId, null);
     }
 
     @Override
-    public List<ItemForResponseDto> searchItem(Long ownerId, String text) {
+    @Transactional(readOnly = true)
+    public List<ItemForResponseDto> searchItem(Long ownerId, String text, Integer from, Integer size) {
         if (text == null || text.isBlank()) {
             log.info("Text is empty");
             return Collections.emptyList();
         }
-        validationService.isExistUser(ownerId);
+        if (text.length() < ItemSearchIndex.GRAM) {
+            throw new ValidationException("Search text must be at least " + ItemSearchIndex.GRAM + " characters");
+        }
+        validationService.checkUserExists(ownerId);
 
-        List<ItemForResponseDto> list = itemRepository.searchItems(text)
+        List<Long> ids = searchIndex.search(text, from, size);
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids)
                 .stream()
-                .map(ItemMapper::toGetItemDtoFromItem)
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        if (itemsById.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllViewsByItemIdIn(itemsById.keySet())
+                .stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId,
+                        Collectors.mapping(CommentDtoMapper::toCommentDto, Collectors.toList())));
+
+        // An item deleted on another node may still be indexed here until its event arrives.
+        List<ItemForResponseDto> list = ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .map(item -> ItemMapper.toGetItemDtoFromItem(item,
+                        comments.getOrDefault(item.getId(), new ArrayList<>())))
                 .collect(Collectors.toList());
-        String message = String.format("Items are found '%s' by text: %s", list, text);
-        log.info(message);
+        log.info("Found {} Items by text: {}", list.size(), text);
 
         return list;
     }
@@ -129,7 +216,7 @@ public class ItemServiceImpl implements ItemService {
         User user = validationService.isExistUser(bookerId);
         Item item = validationService.isExistItem(itemId);
 
-        if (validationService.isBookingByUser(user, item)) {
+        if (validationService.hasFinishedBooking(bookerId, itemId)) {
             Comment comment = CommentDtoMapper.toCommentFromCreateCommentDto(commentDto);
 
             comment.setText(commentDto.getText());
@@ -137,10 +224,61 @@ public class ItemServiceImpl implements ItemService {
             comment.setAuthor(user);
             comment.setCreated(LocalDateTime.now());
 
-            return CommentDtoMapper.toCommentDto(commentRepository.save(comment));
+            Comment savedComment = commentRepository.save(comment);
+            publish(ItemEvent.Type.COMMENTED, itemId, item.getOwner().getId(), savedComment.getId());
+            return CommentDtoMapper.toCommentDto(savedComment);
         } else {
             throw new NotAvailableException(String.format(
                     "User with ID = %s has not booked Item with ID = %s", bookerId, itemId));
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        validationService.checkUserExists(userId);
+        validationService.getItemOwnerId(itemId);
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plus(DEFAULT_AVAILABILITY_WINDOW);
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Availability range must end after it starts.");
+        }
+        if (Duration.between(start, end).compareTo(MAX_AVAILABILITY_WINDOW) > 0) {
+            throw new ValidationException("Availability range cannot be longer than "
+                    + MAX_AVAILABILITY_WINDOW.toDays() + " days.");
+        }
+
+        List<TimeRange> busy = availabilityIndex.busyBetween(itemId, start, end);
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(start)
+                .to(end)
+                .busy(busy)
+                .free(freeBetween(busy, start, end))
+                .build();
+    }
+
+    private void publish(ItemEvent.Type type, Long itemId, Long ownerId, Long commentId) {
+        outbox.record(Outbox.ITEM, itemId, type.name(), ItemEvent.builder()
+                .type(type)
+                .itemId(itemId)
+                .ownerId(ownerId)
+                .commentId(commentId)
+                .build());
+    }
+
+    private List<TimeRange> freeBetween(List<TimeRange> busy, LocalDateTime from, LocalDateTime to) {
+        List<TimeRange> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (TimeRange range : busy) {
+            if (cursor.isBefore(range.getStart())) {
+                free.add(new TimeRange(cursor, range.getStart()));
+            }
+            cursor = range.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new TimeRange(cursor, to));
+        }
+        return free;
+    }
 }
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records domain events in the outbox table as part of the caller's transaction,
+ * so an event exists exactly when the change that caused it has committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+    public static final String BOOKING = "booking";
+    public static final String ITEM = "item";
+    public static final String REQUEST = "request";
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxRelay relay;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        outboxRepository.save(OutboxMessage.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(toJson(payload))
+                .created(LocalDateTime.now())
+                .build());
+        TransactionUtils.afterCommit(relay::wakeUp);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload can not be serialized", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "outbox", schema = "public")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime created;
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.scheduling.JobExecutors;
+import ru.practicum.shareit.scheduling.JobLock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes outbox messages written more than {@code shareit.outbox.purge.retention} ago. Every node's
+ * {@link OutboxRelay} reads the outbox independently, so no single relay can tell when a message is no longer
+ * needed; the retention has to cover the relay's {@code shareit.outbox.commit-window} and any delivery backlog.
+ * Each chunk of {@code shareit.outbox.purge.batch-size} messages is deleted in its own transaction,
+ * and only the node holding the {@link JobLock} lease purges.
+ */
+@Component
+@Slf4j
+public class OutboxPurger implements SmartLifecycle {
+    static final String JOB = "outbox-purge";
+
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLock jobLock;
+    private final ScheduledExecutorService executor;
+    private volatile boolean running;
+    private final boolean enabled;
+    private final Duration retention;
+    private final Duration interval;
+    private final Duration lease;
+    private final int batchSize;
+    private final Counter purged;
+    private final Timer runs;
+
+    public OutboxPurger(OutboxRepository outboxRepository,
+                        TransactionTemplate transactionTemplate,
+                        JobLock jobLock,
+                        MeterRegistry meterRegistry,
+                        @Value("${shareit.outbox.purge.enabled:true}") boolean enabled,
+                        @Value("${shareit.outbox.purge.retention:1h}") Duration retention,
+                        @Value("${shareit.outbox.purge.interval:5m}") Duration interval,
+                        @Value("${shareit.outbox.purge.lease:5m}") Duration lease,
+                        @Value("${shareit.outbox.purge.batch-size:1000}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLock = jobLock;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.interval = interval;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, JOB);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.purged = meterRegistry.counter("outbox.purged");
+        this.runs = meterRegistry.timer("outbox.purge.runs");
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::purgeSafely, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        JobExecutors.stop(executor, JOB);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Deletes expired messages in chunks and returns how many were deleted, or -1 when another node holds the lease.
+     */
+    public int purge() {
+        if (!jobLock.tryAcquire(JOB, lease)) {
+            return -1;
+        }
+        try {
+            return runs.record(() -> {
+                LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+                int total = 0;
+                int chunk;
+                do {
+                    chunk = transactionTemplate.execute(status -> deleteChunk(cutoff));
+                    total += chunk;
+                } while (chunk == batchSize);
+                purged.increment(total);
+                if (total > 0) {
+                    log.info("Purged {} outbox messages written before {}", total, cutoff);
+                }
+                return total;
+            });
+        } finally {
+            jobLock.release(JOB);
+        }
+    }
+
+    private int deleteChunk(LocalDateTime cutoff) {
+        List<Long> ids = outboxRepository.findIdsCreatedBefore(cutoff, batchSize);
+        if (!ids.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
+    }
+
+    private void purgeSafely() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.error("Outbox purge run failed", e);
+        }
+    }
+}
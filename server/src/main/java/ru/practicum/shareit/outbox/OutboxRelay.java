@@ -0,0 +1,223 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.scheduling.JobExecutors;
+import ru.practicum.shareit.scheduling.JobLock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tails the outbox and hands every message to this node's {@link OutboxSubscriber}s.
+ * Subscribers keep node-local state (open event streams, in-memory indexes), so every node runs its own relay
+ * and reads every message; the relay never deletes rows, {@link OutboxPurger} drops them after
+ * {@code shareit.outbox.purge.retention}. Progress is an in-memory cursor: all messages up to it are done on this node.
+ * <p>
+ * A single relay thread reads messages in id order, so the messages of one aggregate are delivered in the
+ * order they were written. When a subscriber fails, the rest of that aggregate is held back until the next poll
+ * while other aggregates move on; a message that fails {@code shareit.outbox.max-attempts} times on this node is
+ * copied to {@code outbox_dead_letter} and skipped. A gap in the ids may be a transaction that has not committed
+ * yet, so the cursor only moves past it once the messages after it are older than
+ * {@code shareit.outbox.commit-window}; messages behind the gap are delivered meanwhile and remembered.
+ * A starting node begins one commit window back, since its subscribers start from the current database state.
+ * <p>
+ * The relay is woken after every commit on this node that writes to the outbox and polls every
+ * {@code shareit.outbox.poll-interval} for messages written by other nodes.
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicReference<LocalDateTime> oldestPending = new AtomicReference<>();
+    private final Set<Long> deliveredAhead = new HashSet<>();
+    private final Map<Long, Integer> attempts = new HashMap<>();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration commitWindow;
+    private final Duration pollInterval;
+    private final boolean enabled;
+    private final Timer deliveryLag;
+    private final Counter delivered;
+    private final Counter failures;
+    private final Counter deadLettered;
+    private volatile boolean running;
+    private long cursor = -1;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       List<OutboxSubscriber> subscribers,
+                       TransactionTemplate transactionTemplate,
+                       JobLock jobLock,
+                       MeterRegistry meterRegistry,
+                       @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                       @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${shareit.outbox.commit-window:1m}") Duration commitWindow,
+                       @Value("${shareit.outbox.poll-interval:1s}") Duration pollInterval,
+                       @Value("${shareit.outbox.relay.enabled:true}") boolean enabled) {
+        this.outboxRepository = outboxRepository;
+        this.subscribers = subscribers;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = jobLock.getNodeId();
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.commitWindow = commitWindow;
+        this.pollInterval = pollInterval;
+        this.enabled = enabled;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deliveryLag = Timer.builder("outbox.delivery.lag")
+                .description("Time from writing an outbox message to delivering it")
+                .register(meterRegistry);
+        this.delivered = meterRegistry.counter("outbox.delivered");
+        this.failures = meterRegistry.counter("outbox.failures");
+        this.deadLettered = meterRegistry.counter("outbox.dead-lettered");
+        TimeGauge.builder("outbox.lag", oldestPending, TimeUnit.MILLISECONDS, oldest -> {
+                    LocalDateTime created = oldest.get();
+                    return created == null ? 0 : Duration.between(created, LocalDateTime.now()).toMillis();
+                })
+                .description("Age of the oldest message this node has not delivered")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::drainSafely, pollInterval.toMillis(), pollInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        JobExecutors.stop(executor, "outbox-relay");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Messages committed after {@link #stop()} are not delivered on this node.
+     */
+    public void wakeUp() {
+        if (enabled && running && wakeUpPending.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    wakeUpPending.set(false);
+                    drainSafely();
+                });
+            } catch (RejectedExecutionException e) {
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Delivers every message after the cursor once, holding back the aggregates that fail in this run.
+     */
+    void drain() {
+        LocalDateTime settled = LocalDateTime.now().minus(commitWindow);
+        if (cursor < 0) {
+            Long start = outboxRepository.findLastIdCreatedBefore(settled);
+            cursor = start == null ? 0 : start;
+        }
+        Set<String> blocked = new HashSet<>();
+        LocalDateTime oldest = null;
+        boolean contiguous = true;
+        long lastId = cursor;
+        List<OutboxMessage> batch;
+        do {
+            batch = outboxRepository.findAfter(lastId, PageRequest.of(0, batchSize));
+            for (OutboxMessage message : batch) {
+                Long id = message.getId();
+                if (id != lastId + 1 && message.getCreated().isAfter(settled)) {
+                    contiguous = false;
+                }
+                lastId = id;
+                boolean done = deliveredAhead.contains(id) || deliver(message, blocked);
+                if (done && contiguous) {
+                    cursor = id;
+                    deliveredAhead.remove(id);
+                } else {
+                    contiguous = false;
+                    if (done) {
+                        deliveredAhead.add(id);
+                    } else if (oldest == null) {
+                        oldest = message.getCreated();
+                    }
+                }
+            }
+        } while (batch.size() == batchSize);
+        oldestPending.set(oldest);
+    }
+
+    private boolean deliver(OutboxMessage message, Set<String> blocked) {
+        String aggregate = message.getAggregateType() + ":" + message.getAggregateId();
+        if (blocked.contains(aggregate)) {
+            return false;
+        }
+        try {
+            subscribers.stream()
+                    .filter(subscriber -> subscriber.supports(message.getAggregateType()))
+                    .forEach(subscriber -> subscriber.handle(message));
+        } catch (RuntimeException e) {
+            failures.increment();
+            int attempt = attempts.merge(message.getId(), 1, Integer::sum);
+            if (attempt < maxAttempts) {
+                log.warn("Outbox message {} ({} {}) failed on attempt {}, holding back {} until the next poll",
+                        message.getId(), message.getEventType(), aggregate, attempt, aggregate, e);
+                blocked.add(aggregate);
+                return false;
+            }
+            log.error("Outbox message {} ({} {}) failed {} times, moving it to the dead letter table",
+                    message.getId(), message.getEventType(), aggregate, attempt, e);
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.copyToDeadLetter(message.getId(), nodeId, attempt, LocalDateTime.now()));
+            attempts.remove(message.getId());
+            deadLettered.increment();
+            return true;
+        }
+        attempts.remove(message.getId());
+        delivered.increment();
+        deliveryLag.record(Duration.between(message.getCreated(), LocalDateTime.now()));
+        return true;
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.error("Outbox relay run failed", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+
+    @Query("select m from OutboxMessage m where m.id > :afterId order by m.id")
+    List<OutboxMessage> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select max(m.id) from OutboxMessage m where m.created < :before")
+    Long findLastIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    @Query(value = "select id from outbox where created_date < :before order by created_date limit :limit",
+            nativeQuery = true)
+    List<Long> findIdsCreatedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "insert into outbox_dead_letter "
+            + "(id, node_id, aggregate_type, aggregate_id, event_type, payload, created_date, attempts, failed_at) "
+            + "select id, :nodeId, aggregate_type, aggregate_id, event_type, payload, created_date, :attempts, "
+            + ":failedAt from outbox where id = :id", nativeQuery = true)
+    int copyToDeadLetter(@Param("id") Long id, @Param("nodeId") String nodeId, @Param("attempts") int attempts,
+                         @Param("failedAt") LocalDateTime failedAt);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.outbox;
+
+/**
+ * Receives outbox messages from the relay after the writing transaction has committed.
+ * Every node's relay hands every message to that node's subscribers, so a subscriber sees changes made
+ * through any node; messages of one aggregate arrive in the order they were written.
+ * Delivery is at-least-once: a message is handed out again if any subscriber fails on it,
+ * so handlers must tolerate duplicates.
+ */
+public interface OutboxSubscriber {
+
+    boolean supports(String aggregateType);
+
+    void handle(OutboxMessage message);
+}
@@ -2,12 +2,19 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> getAllByRequester_IdOrderByCreatedDesc(Long requesterId);
+    @Query("select r from ItemRequest r where r.requester.id = :requesterId order by r.created desc")
+    List<ItemRequest> getAllByRequester_IdOrderByCreatedDesc(@Param("requesterId") Long requesterId);
 
     List<ItemRequest> getItemRequestByRequesterIdIsNotOrderByCreated(Long userId, Pageable pageable);
+
+    @Query("select r.id from ItemRequest r where r.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
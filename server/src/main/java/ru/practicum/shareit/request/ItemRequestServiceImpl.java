@@ -8,8 +8,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestForResponse;
+import ru.practicum.shareit.request.events.ItemRequestEvent;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -26,6 +28,7 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final ValidationService validationService;
+    private final Outbox outbox;
 
     @Override
     public ItemRequestForResponse addItemRequest(Long requesterId, ItemRequestDto itemRequestDto) {
@@ -39,13 +42,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         itemRequest.setRequester(userFromDb);
         itemRequest.setCreated(LocalDateTime.now());
-        return ItemRequestMapper.toItemRequestForResponse(itemRequestRepository.saveAndFlush(itemRequest));
+        ItemRequest savedRequest = itemRequestRepository.saveAndFlush(itemRequest);
+        outbox.record(Outbox.REQUEST, savedRequest.getId(), ItemRequestEvent.Type.CREATED.name(),
+                ItemRequestEvent.builder()
+                        .type(ItemRequestEvent.Type.CREATED)
+                        .requestId(savedRequest.getId())
+                        .requesterId(requesterId)
+                        .build());
+        return ItemRequestMapper.toItemRequestForResponse(savedRequest);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestForResponse> getItemRequestsByUserId(Long requesterId) {
-        validationService.isExistUser(requesterId);
+        validationService.checkUserExists(requesterId);
         List<ItemRequest> itemRequests = itemRequestRepository.getAllByRequester_IdOrderByCreatedDesc(requesterId);
         return itemRequests.stream()
                 .map(ItemRequestMapper::toItemRequestForResponse).collect(Collectors.toList());
@@ -54,7 +64,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestForResponse> getAllRequests(Long userId, Integer from, Integer size) {
-        validationService.isExistUser(userId);
+        validationService.checkUserExists(userId);
         Pageable pageable = PageRequest.of(from / size, size);
         List<ItemRequest> itemRequests =
                 itemRequestRepository.getItemRequestByRequesterIdIsNotOrderByCreated(userId, pageable);
@@ -66,7 +76,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional(readOnly = true)
     public ItemRequestForResponse getItemRequestById(Long userId, Long requestId) {
-        validationService.isExistUser(userId);
+        validationService.checkUserExists(userId);
         ItemRequest result = itemRequestRepository.findById(requestId).orElseThrow(
                 () -> new NotFoundException("Item Request is not found"));
         return ItemRequestMapper.toItemRequestForResponse(result);
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.events;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+public class ItemRequestEvent {
+    Type type;
+    Long requestId;
+    Long requesterId;
+
+    public enum Type {
+        CREATED
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.scheduling;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@UtilityClass
+@Slf4j
+public class JobExecutors {
+    static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Cancels the scheduled runs and waits for a run in progress, so it can finish its transaction
+     * before the context closes the DataSource. A run still going after {@link #STOP_TIMEOUT} is interrupted.
+     */
+    public static void stop(ExecutorService executor, String job) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Job {} did not stop within {}, interrupting it", job, STOP_TIMEOUT);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lease-based lock in the {@code job_locks} table that lets one server node run a background job at a time.
+ * A node holds the lease until it releases it or the lease runs out, so a crashed leader
+ * blocks the job for at most one lease.
+ */
+@Component
+@Slf4j
+public class JobLock {
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    public JobLock(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Identifies this process in {@code job_locks} and in other per-node bookkeeping.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean tryAcquire(String job, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp lockedUntil = Timestamp.valueOf(now.plus(lease));
+        int taken = jdbcTemplate.update("update job_locks set locked_until = ?, locked_by = ? "
+                        + "where name = ? and (locked_until <= ? or locked_by = ?)",
+                lockedUntil, nodeId, job, Timestamp.valueOf(now), nodeId);
+        if (taken == 1) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update("insert into job_locks (name, locked_until, locked_by) values (?, ?, ?)",
+                    job, lockedUntil, nodeId);
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.debug("Job {} is running on another node", job);
+            return false;
+        }
+    }
+
+    public void release(String job) {
+        jdbcTemplate.update("update job_locks set locked_until = ? where name = ? and locked_by = ?",
+                Timestamp.valueOf(LocalDateTime.now()), job, nodeId);
+    }
+}
@@ -2,17 +2,26 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.CreateUpdateUserDto;
 import ru.practicum.shareit.user.dto.UserForResponseDto;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.validation.CreateObject;
 import ru.practicum.shareit.validation.UpdateObject;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
 
+import static ru.practicum.shareit.constant.Constants.NEXT_CURSOR_HEADER;
+
 @RestController
 @RequestMapping(path = "/users")
 @Validated
@@ -22,9 +31,29 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    public List<UserForResponseDto> getAllUsers() {
+    public ResponseEntity<List<UserForResponseDto>> getAllUsers(
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "after", required = false) Long after) {
         log.info("Getting All Users");
-        return userService.getAllUsers();
+        List<UserForResponseDto> page = userService.getAllUsers(from, size, after);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Streams all users as NDJSON. The ETag filter would buffer the whole body, so it is skipped here.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(HttpServletRequest request) {
+        log.info("Streaming All Users");
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userService::writeAllUsers);
     }
 
     @PostMapping
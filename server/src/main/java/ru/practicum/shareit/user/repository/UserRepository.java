@@ -1,9 +1,26 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface UserRepository extends JpaRepository<User, Long>, UserStreamRepository {
 
     Long findUserIdByEmail(String email);
+
+    @Query(value = "select * from users order by id limit :limit offset :offset", nativeQuery = true)
+    List<User> findPage(@Param("offset") int offset, @Param("limit") int limit);
+
+    @Query(value = "select * from users where id > :afterId order by id limit :limit", nativeQuery = true)
+    List<User> findPageAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
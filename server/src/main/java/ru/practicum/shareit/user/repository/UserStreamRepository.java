@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.repository;
+
+import ru.practicum.shareit.user.model.User;
+
+import java.util.function.Consumer;
+
+public interface UserStreamRepository {
+
+    /**
+     * Reads every user in id order through a forward-only JDBC cursor and hands them over one at a time.
+     * The users are detached; only one fetch-size window of rows is held at once.
+     */
+    void forEachUser(Consumer<User> action);
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+/**
+ * Runs on its own {@link JdbcTemplate} with a fixed fetch size, so the driver streams the result set instead of
+ * buffering it. PostgreSQL only does that inside a transaction, which callers are expected to open.
+ */
+public class UserStreamRepositoryImpl implements UserStreamRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserStreamRepositoryImpl(DataSource dataSource,
+                                    @Value("${shareit.users.stream.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        jdbcTemplate.query("select id, name, email from users order by id", resultSet -> {
+            action.accept(new User(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3)));
+        });
+    }
+}
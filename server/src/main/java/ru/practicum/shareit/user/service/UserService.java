@@ -3,12 +3,22 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.CreateUpdateUserDto;
 import ru.practicum.shareit.user.dto.UserForResponseDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserService {
     UserForResponseDto getUserById(Long id);
 
-    List<UserForResponseDto> getAllUsers();
+    /**
+     * One page of users in id order: after the given id when {@code after} is set, otherwise from the offset.
+     */
+    List<UserForResponseDto> getAllUsers(Integer from, Integer size, Long after);
+
+    /**
+     * Writes every user as NDJSON, one line per user in id order.
+     */
+    void writeAllUsers(OutputStream out) throws IOException;
 
     UserForResponseDto createUser(CreateUpdateUserDto createUpdateUserDto);
 
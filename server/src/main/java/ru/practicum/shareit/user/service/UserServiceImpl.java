@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
@@ -7,13 +8,18 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.export.NdjsonRowWriter;
 import ru.practicum.shareit.user.dto.CreateUpdateUserDto;
 import ru.practicum.shareit.user.dto.UserForResponseDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validation.ExistenceCache;
 import ru.practicum.shareit.validation.ValidationService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,8 +28,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class UserServiceImpl implements UserService {
+    private static final List<String> USER_COLUMNS = List.of("id", "name", "email");
+
     private final UserRepository userRepository;
     private final ValidationService validationService;
+    private final ExistenceCache existenceCache;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional(readOnly = true)
@@ -36,10 +46,27 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserForResponseDto> getAllUsers() {
-        List<User> allUsers = userRepository.findAll();
-        log.info("All users are shown");
-        return allUsers.stream().map(UserMapper::userForResponseDto).collect(Collectors.toList());
+    public List<UserForResponseDto> getAllUsers(Integer from, Integer size, Long after) {
+        List<User> users = after != null
+                ? userRepository.findPageAfter(after, size)
+                : userRepository.findPage(from / size * size, size);
+        log.info("Found {} users", users.size());
+        return users.stream().map(UserMapper::userForResponseDto).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeAllUsers(OutputStream out) throws IOException {
+        try (NdjsonRowWriter writer = new NdjsonRowWriter(objectMapper.getFactory(), out, USER_COLUMNS)) {
+            userRepository.forEachUser(user -> {
+                try {
+                    writer.write(new Object[]{user.getId(), user.getName(), user.getEmail()});
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        log.info("All users are streamed");
     }
 
     @Override
@@ -65,7 +92,9 @@ public class UserServiceImpl implements UserService {
             userForUpdate.setEmail(createUpdateUserDto.getEmail());
         }
         try {
-            return UserMapper.userForResponseDto(userRepository.saveAndFlush(userForUpdate));
+            User updated = userRepository.saveAndFlush(userForUpdate);
+            existenceCache.evictUser(userId);
+            return UserMapper.userForResponseDto(updated);
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("User cannot be updated");
         }
@@ -73,10 +102,11 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void removeUser(Long id) {
-        validationService.isExistUser(id);
+        validationService.checkUserExists(id);
 
         log.info("User {} is removed", id);
         userRepository.deleteById(id);
+        existenceCache.evictUser(id);
     }
 
 }
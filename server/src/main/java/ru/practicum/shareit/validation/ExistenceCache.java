@@ -0,0 +1,81 @@
+package ru.practicum.shareit.validation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of known user ids, item owners and the items each user has finished a booking of,
+ * used by {@link ValidationService}.
+ * Only positive lookups are stored; entries are dropped after the transaction that changes them commits.
+ */
+@Component
+public class ExistenceCache {
+    private final Cache<Long, Boolean> users;
+    private final Cache<Long, Long> itemOwners;
+    private final Cache<Long, Set<Long>> finishedBookings;
+
+    public ExistenceCache(MeterRegistry meterRegistry,
+                          @Value("${shareit.cache.existence.max-size:10000}") long maxSize,
+                          @Value("${shareit.cache.existence.ttl:PT10M}") Duration ttl) {
+        this.users = build(maxSize, ttl);
+        this.itemOwners = build(maxSize, ttl);
+        this.finishedBookings = build(maxSize, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users.existence");
+        CaffeineCacheMetrics.monitor(meterRegistry, itemOwners, "items.owner");
+        CaffeineCacheMetrics.monitor(meterRegistry, finishedBookings, "bookings.finished");
+    }
+
+    public boolean isKnownUser(Long userId) {
+        return users.getIfPresent(userId) != null;
+    }
+
+    public void putUser(Long userId) {
+        users.put(userId, Boolean.TRUE);
+    }
+
+    public Long getItemOwner(Long itemId, Function<Long, Long> loader) {
+        return itemOwners.get(itemId, loader);
+    }
+
+    /**
+     * A finished booking never becomes unfinished, so a stored pair stays valid until the user is removed.
+     */
+    public boolean hasFinishedBooking(Long userId, Long itemId) {
+        Set<Long> itemIds = finishedBookings.getIfPresent(userId);
+        return itemIds != null && itemIds.contains(itemId);
+    }
+
+    public void putFinishedBooking(Long userId, Long itemId) {
+        finishedBookings.get(userId, id -> ConcurrentHashMap.newKeySet()).add(itemId);
+    }
+
+    public void evictUser(Long userId) {
+        TransactionUtils.afterCommit(() -> {
+            users.invalidate(userId);
+            finishedBookings.invalidate(userId);
+            itemOwners.invalidateAll();
+        });
+    }
+
+    public void evictItem(Long itemId) {
+        TransactionUtils.afterCommit(() -> itemOwners.invalidate(itemId));
+    }
+
+    private static <V> Cache<Long, V> build(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
@@ -4,7 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -15,7 +18,6 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -24,12 +26,35 @@ public class ValidationService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
-
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final ExistenceCache existenceCache;
 
     public User isExistUser(Long userId) {
-        return userRepository.findById(userId).orElseThrow(
+        User user = userRepository.findById(userId).orElseThrow(
                 () -> new NotFoundException("User not found in DB.")
         );
+        existenceCache.putUser(userId);
+        return user;
+    }
+
+    public void checkUserExists(Long userId) {
+        if (existenceCache.isKnownUser(userId)) {
+            return;
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found in DB.");
+        }
+        existenceCache.putUser(userId);
+    }
+
+    public Long getItemOwnerId(Long itemId) {
+        Long ownerId = existenceCache.getItemOwner(itemId,
+                id -> itemRepository.findOwnerIdById(id).orElse(null));
+        if (ownerId == null) {
+            throw new NotFoundException("Item is not found");
+        }
+        return ownerId;
     }
 
     public Booking isExistBooking(Long bookingId) {
@@ -38,6 +63,16 @@ public class ValidationService {
         );
     }
 
+    /**
+     * Also finds bookings already moved to {@code bookings_archive}; the result is read-only.
+     */
+    public Booking isExistBookingOrArchived(Long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .or(() -> archivedBookingRepository.findById(bookingId)
+                        .map(BookingMapper::toBookingFromArchivedBooking))
+                .orElseThrow(() -> new NotFoundException("Booking is not found."));
+    }
+
     public Item isExistItem(Long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item is not found"));
@@ -65,15 +100,9 @@ public class ValidationService {
             throw new NotFoundException("Owner can not book own Item");
         }
 
-        Set<Booking> bookings = item.getBookings();
-        if (!bookings.isEmpty()) {
-            for (Booking b : bookings) {
-                if (!(b.getEnd().isBefore(createBookingDto.getStart()) ||
-                        b.getStart().isAfter(createBookingDto.getStart()))) {
-                    log.info("Item can not be booked");
-                    throw new NotAvailableException("Item can not be booked");
-                }
-            }
+        if (availabilityIndex.hasConflict(item.getId(), createBookingDto.getStart(), createBookingDto.getEnd())) {
+            log.info("Item can not be booked");
+            throw new NotAvailableException("Item can not be booked");
         }
     }
 
@@ -98,10 +127,14 @@ public class ValidationService {
         }
     }
 
-    public Boolean isBookingByUser(User user, Item item) {
-        LocalDateTime currentTime = LocalDateTime.now();
-        return item.getBookings()
-                .stream()
-                .anyMatch(t -> t.getBooker().equals(user) && t.getEnd().isBefore(currentTime));
+    public boolean hasFinishedBooking(Long userId, Long itemId) {
+        if (existenceCache.hasFinishedBooking(userId, itemId)) {
+            return true;
+        }
+        boolean finished = bookingRepository.existsFinished(itemId, userId, LocalDateTime.now());
+        if (finished) {
+            existenceCache.putFinishedBooking(userId, itemId);
+        }
+        return finished;
     }
 }
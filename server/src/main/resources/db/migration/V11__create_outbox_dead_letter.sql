@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS outbox_dead_letter
+(
+    id             BIGINT                   NOT NULL,
+    aggregate_type VARCHAR(64)              NOT NULL,
+    aggregate_id   BIGINT                   NOT NULL,
+    event_type     VARCHAR(64)              NOT NULL,
+    payload        VARCHAR(4000)            NOT NULL,
+    created_date   TIMESTAMP WITH TIME ZONE NOT NULL,
+    attempts       INTEGER                  NOT NULL,
+    failed_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT PK_OUTBOX_DEAD_LETTER PRIMARY KEY (id)
+);
@@ -0,0 +1,7 @@
+ALTER TABLE outbox DROP COLUMN IF EXISTS attempts;
+
+CREATE INDEX IF NOT EXISTS IX_OUTBOX_CREATED ON outbox (created_date);
+
+ALTER TABLE outbox_dead_letter ADD COLUMN IF NOT EXISTS node_id VARCHAR(255) DEFAULT '' NOT NULL;
+ALTER TABLE outbox_dead_letter DROP CONSTRAINT PK_OUTBOX_DEAD_LETTER;
+ALTER TABLE outbox_dead_letter ADD CONSTRAINT PK_OUTBOX_DEAD_LETTER PRIMARY KEY (id, node_id);
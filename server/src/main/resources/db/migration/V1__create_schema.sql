@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS users, requests, items, bookings, feedbacks;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -54,4 +52,4 @@ CREATE TABLE IF NOT EXISTS feedbacks
         on delete cascade on update cascade,
     CONSTRAINT FK_COMMENT_AUTHOR FOREIGN KEY (author_id) references users
         on delete cascade on update cascade
-)
\ No newline at end of file
+);
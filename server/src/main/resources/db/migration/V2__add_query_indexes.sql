@@ -0,0 +1,12 @@
+CREATE INDEX IF NOT EXISTS IX_BOOKING_BOOKER_START ON bookings (booker_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ITEM_START ON bookings (item_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ITEM_END ON bookings (item_id, end_time);
+
+CREATE INDEX IF NOT EXISTS IX_ITEM_OWNER ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS IX_ITEM_REQUEST ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS IX_REQUEST_REQUESTER_CREATED ON requests (requester_id, created_date DESC);
+CREATE INDEX IF NOT EXISTS IX_REQUEST_CREATED ON requests (created_date);
+
+CREATE INDEX IF NOT EXISTS IX_COMMENT_ITEM ON feedbacks (item_id);
+CREATE INDEX IF NOT EXISTS IX_COMMENT_AUTHOR ON feedbacks (author_id);
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS outbox
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    aggregate_type VARCHAR(64)                             NOT NULL,
+    aggregate_id   BIGINT                                  NOT NULL,
+    event_type     VARCHAR(64)                             NOT NULL,
+    payload        VARCHAR(4000)                           NOT NULL,
+    created_date   TIMESTAMP WITH TIME ZONE                NOT NULL,
+    attempts       INTEGER DEFAULT 0                       NOT NULL,
+    CONSTRAINT PK_OUTBOX PRIMARY KEY (id)
+);
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS job_locks
+(
+    name         VARCHAR(64)  NOT NULL,
+    locked_until TIMESTAMP    NOT NULL,
+    locked_by    VARCHAR(255) NOT NULL,
+    CONSTRAINT PK_JOB_LOCK PRIMARY KEY (name)
+);
@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS bookings_archive
+(
+    id          BIGINT                      NOT NULL,
+    item_id     BIGINT                      NOT NULL,
+    booker_id   BIGINT                      NOT NULL,
+    start_time  TIMESTAMP without time zone NOT NULL,
+    end_time    TIMESTAMP without time zone NOT NULL,
+    status      VARCHAR(16)                 NOT NULL,
+    version     BIGINT                      NOT NULL,
+    archived_at TIMESTAMP without time zone NOT NULL,
+    CONSTRAINT PK_BOOKING_ARCHIVE PRIMARY KEY (id),
+    CONSTRAINT FK_BOOKING_ARCHIVE_ITEM FOREIGN KEY (item_id) references items
+        on delete cascade on update cascade,
+    CONSTRAINT FK_BOOKING_ARCHIVE_BOOKER FOREIGN KEY (booker_id) references users
+        on delete cascade on update cascade
+);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ARCHIVE_BOOKER_START ON bookings_archive (booker_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ARCHIVE_ITEM_START ON bookings_archive (item_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKING_END ON bookings (end_time, id);
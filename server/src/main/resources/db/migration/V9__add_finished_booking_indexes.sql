@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ITEM_BOOKER_END ON bookings (item_id, booker_id, end_time);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ARCHIVE_ITEM_BOOKER_END ON bookings_archive (item_id, booker_id, end_time);
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ErrorHandler;
 import ru.practicum.shareit.exception.ErrorResponse;
@@ -39,6 +40,13 @@ public class ErrorHandlerTest {
         assertEquals("Произошел конфликт данных: Resource already exists", result.getMessage());
     }
 
+    @Test
+    void testHandleConcurrentUpdate() {
+        ErrorResponse result = errorHandler.handleConcurrentUpdate(
+                new ObjectOptimisticLockingFailureException("Booking", 1L));
+        assertEquals("Данные были изменены другим запросом, повторите попытку.", result.getError());
+    }
+
     @Test
     void testHandleThrowable() {
         Throwable throwable = new Throwable("Что-то пошло не так");
@@ -0,0 +1,105 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Entity ids come from pooled sequences: persists need no round trip per row and are flushed in JDBC batches,
+ * and migrating an existing database starts every sequence past the ids it already issued.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:id-sequences;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        SqlStatements.INSPECTOR_PROPERTY
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class IdSequenceTest {
+    private static final int USERS = 120;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Batched inserts reuse one prepared statement; unbatched ones would prepare it for every row.
+     */
+    @Test
+    void persistsAllocateIdsInBlocksAndInsertInBatches() {
+        SqlStatements.clear();
+
+        List<User> users = userRepository.saveAll(IntStream.rangeClosed(1, USERS)
+                .mapToObj(i -> User.builder().name("user " + i).email("user" + i + "@mail.ru").build())
+                .collect(Collectors.toList()));
+        entityManager.flush();
+
+        List<String> statements = SqlStatements.recorded();
+        long sequenceCalls = statements.stream().filter(sql -> sql.contains("nextval")).count();
+        long inserts = statements.stream().filter(sql -> sql.startsWith("insert")).count();
+        assertEquals(3, sequenceCalls, () -> String.join("\n", statements));
+        assertEquals(1, inserts, () -> String.join("\n", statements));
+        assertEquals(USERS, users.stream().map(User::getId).distinct().count());
+    }
+
+    @Test
+    void migrationStartsSequencesPastIssuedIds() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:id-sequences-migration;MODE=PostgreSQL", "sa", "", true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            Flyway flyway = Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                    .placeholders(Map.of("id-allocation-size", "10"))
+                    .target("9")
+                    .load();
+            flyway.migrate();
+            jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru'), "
+                    + "(37, 'booker', 'booker@mail.ru')");
+            jdbcTemplate.update("insert into items (id, name, description, owner_id, is_available) "
+                    + "values (5, 'Drill', 'Drill', 1, true)");
+            jdbcTemplate.update("insert into bookings (id, item_id, booker_id, start_time, end_time, status) "
+                    + "values (3, 5, 37, timestamp '2030-01-01 10:00:00', timestamp '2030-01-02 10:00:00', 'WAITING')");
+            jdbcTemplate.update("insert into bookings_archive "
+                    + "(id, item_id, booker_id, start_time, end_time, status, version, archived_at) values "
+                    + "(80, 5, 37, timestamp '2020-01-01 10:00:00', timestamp '2020-01-02 10:00:00', 'APPROVED', "
+                    + "0, timestamp '2021-01-01 00:00:00')");
+
+            Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .target("latest")
+                    .load()
+                    .migrate();
+
+            assertEquals(47L, nextValue(jdbcTemplate, "user_seq"));
+            assertEquals(15L, nextValue(jdbcTemplate, "item_seq"));
+            assertEquals(90L, nextValue(jdbcTemplate, "booking_seq"));
+            assertEquals(10L, nextValue(jdbcTemplate, "request_seq"));
+            assertEquals(10L, nextValue(jdbcTemplate, "comment_seq"));
+            jdbcTemplate.update("insert into users (name, email) values ('plain insert', 'plain@mail.ru')");
+            assertEquals(57L, jdbcTemplate.queryForObject(
+                    "select id from users where email = 'plain@mail.ru'", Long.class));
+        } finally {
+            new JdbcTemplate(dataSource).execute("drop all objects");
+            dataSource.destroy();
+        }
+    }
+
+    private static Long nextValue(JdbcTemplate jdbcTemplate, String sequence) {
+        return jdbcTemplate.queryForObject("select nextval('" + sequence + "')", Long.class);
+    }
+}
@@ -0,0 +1,209 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.query.BookingFilter;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Explains every SQL statement a repository finder sends and fails when H2 plans a full table scan,
+ * so a finder that loses its index from the migrations breaks the build.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        SqlStatements.INSPECTOR_PROPERTY
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+    private static final BookingState[] LISTED_STATES = {BookingState.ALL, BookingState.CURRENT, BookingState.PAST,
+            BookingState.FUTURE, BookingState.WAITING, BookingState.REJECTED};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("insert into users (id, name, email) "
+                + "select x, 'user ' || x, 'user' || x || '@mail.ru' from system_range(1, 200)");
+        jdbcTemplate.execute("insert into requests (id, description, requester_id, created_date) "
+                + "select x, 'request ' || x, mod(x, 200) + 1, timestamp '2024-01-01 00:00:00' + x * interval '1' hour "
+                + "from system_range(1, 500)");
+        jdbcTemplate.execute("insert into items (id, name, description, owner_id, is_available, request_id) "
+                + "select x, 'item ' || x, 'description ' || x, mod(x, 200) + 1, true, "
+                + "case when mod(x, 4) = 0 then mod(x, 500) + 1 end from system_range(1, 1000)");
+        jdbcTemplate.execute("insert into bookings (id, item_id, booker_id, start_time, end_time, status) "
+                + "select x, mod(x, 1000) + 1, mod(x * 7, 200) + 1, "
+                + "timestamp '2024-01-01 00:00:00' + x * interval '1' hour, "
+                + "timestamp '2024-01-01 00:00:00' + (x + 2) * interval '1' hour, "
+                + "case mod(x, 4) when 0 then 'WAITING' when 1 then 'REJECTED' else 'APPROVED' end "
+                + "from system_range(1, 10000)");
+        jdbcTemplate.execute("insert into feedbacks (id, content, item_id, author_id, created_date) "
+                + "select x, 'comment ' || x, mod(x, 1000) + 1, mod(x, 200) + 1, timestamp '2024-01-01 00:00:00' "
+                + "from system_range(1, 2000)");
+        jdbcTemplate.execute("insert into outbox (id, aggregate_type, aggregate_id, event_type, payload, created_date) "
+                + "select x, 'booking', mod(x, 100) + 1, 'CREATED', '{}', timestamp '2024-01-01 00:00:00' "
+                + "from system_range(1, 1000)");
+        jdbcTemplate.execute("insert into bookings_archive "
+                + "(id, item_id, booker_id, start_time, end_time, status, version, archived_at) "
+                + "select 20000 + x, mod(x, 1000) + 1, mod(x * 7, 200) + 1, "
+                + "timestamp '2022-01-01 00:00:00' + x * interval '1' hour, "
+                + "timestamp '2022-01-01 00:00:00' + (x + 2) * interval '1' hour, 'APPROVED', 0, "
+                + "timestamp '2024-01-01 00:00:00' from system_range(1, 5000)");
+    }
+
+    @Test
+    void bookingListingsUseIndexes() {
+        for (BookingFilter.Role role : BookingFilter.Role.values()) {
+            for (BookingState state : LISTED_STATES) {
+                BookingFilter filter = BookingFilter.builder()
+                        .role(role).userId(7L).state(state).now(NOW).limit(20).build();
+                assertIndexed(() -> bookingRepository.findPage(filter));
+                assertIndexed(() -> bookingRepository.findPage(filter.toBuilder()
+                        .after(new BookingCursor(NOW, 100L)).build()));
+            }
+        }
+    }
+
+    @Test
+    void archivedBookingListingsUseIndexes() {
+        for (BookingFilter.Role role : BookingFilter.Role.values()) {
+            for (BookingState state : List.of(BookingState.ALL, BookingState.PAST, BookingState.REJECTED)) {
+                BookingFilter filter = BookingFilter.builder()
+                        .role(role).userId(7L).state(state).now(NOW).archivedBefore(NOW).limit(20).build();
+                assertIndexed(() -> bookingRepository.findPage(filter));
+                assertIndexed(() -> bookingRepository.findPage(filter.toBuilder().offset(40).build()));
+            }
+        }
+    }
+
+    @Test
+    void bookingArchiverUsesIndexes() {
+        assertIndexed(() -> bookingRepository.findArchivableIds(NOW.minusMonths(3), 1000));
+        assertIndexed(() -> archivedBookingRepository.copyFromBookings(List.of(1L, 2L, 3L), NOW));
+    }
+
+    @Test
+    void filteredBookingListingsUseIndexes() {
+        BookingFilter filter = BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER).userId(7L).now(NOW).limit(20)
+                .statuses(Set.of(Status.WAITING, Status.APPROVED))
+                .itemIds(List.of(7L, 207L))
+                .rangeStart(NOW.minusMonths(1))
+                .rangeEnd(NOW)
+                .build();
+        assertIndexed(() -> bookingRepository.findPage(filter));
+    }
+
+    @Test
+    void itemFindersUseIndexes() {
+        assertIndexed(() -> bookingRepository.findLastAndNextApproved(List.of(1L, 2L, 3L), NOW));
+        assertIndexed(() -> archivedBookingRepository.findLastApproved(List.of(1L, 2L, 3L), NOW));
+        assertIndexed(() -> bookingRepository.findBlockingBookings(
+                1L, Set.of(Status.WAITING, Status.APPROVED), NOW));
+        assertIndexed(() -> bookingRepository.findBlockingBookingsBetween(
+                1L, Set.of(Status.WAITING, Status.APPROVED), NOW.minusMonths(1), NOW));
+        assertIndexed(() -> bookingRepository.findStatusesOwnedBy(List.of(1L, 2L, 3L), 7L));
+        assertIndexed(() -> bookingRepository.updateStatuses(List.of(1L, 2L, 3L), Status.WAITING, Status.APPROVED));
+        assertIndexed(() -> bookingRepository.findStatuses(List.of(1L, 2L, 3L)));
+        assertIndexed(() -> bookingRepository.findWaitingStartedBefore(NOW, 500));
+        assertIndexed(() -> bookingRepository.existsFinished(1L, 7L, NOW));
+        assertIndexed(() -> itemRepository.findAllShortByOwnerId(7L));
+        assertIndexed(() -> itemRepository.findOwnerIdById(1L));
+        assertIndexed(() -> itemRepository.findByIdWithOwner(1L));
+        assertIndexed(() -> itemRepository.findSearchDocumentById(1L));
+        assertIndexed(() -> commentRepository.findAllViewsByItemIdIn(List.of(1L, 2L, 3L)));
+        assertIndexed(() -> userRepository.findUserIdByEmail("nobody@mail.ru"));
+        assertIndexed(() -> userRepository.findPageAfter(100L, 20));
+        assertIndexed(() -> userRepository.findExistingIds(List.of(1L, 2L, 3L)));
+        assertIndexed(() -> userRepository.findExistingEmails(List.of("user1@mail.ru", "nobody@mail.ru")));
+    }
+
+    @Test
+    void requestFindersUseIndexes() {
+        assertIndexed(() -> itemRequestRepository.getAllByRequester_IdOrderByCreatedDesc(7L));
+        assertIndexed(() -> itemRequestRepository.getItemRequestByRequesterIdIsNotOrderByCreated(7L, PAGE));
+        assertIndexed(() -> itemRequestRepository.findExistingIds(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void outboxRelayAndPurgerUseIndexes() {
+        assertIndexed(() -> outboxRepository.findAfter(500L, PAGE));
+        assertIndexed(() -> outboxRepository.findLastIdCreatedBefore(NOW));
+        assertIndexed(() -> outboxRepository.findIdsCreatedBefore(NOW, 100));
+        assertIndexed(() -> outboxRepository.copyToDeadLetter(1L, "node", 3, NOW));
+        assertIndexed(() -> outboxRepository.deleteAllByIdInBatch(List.of(1L, 2L)));
+    }
+
+    @Test
+    void exportsUseIndexes() {
+        assertIndexed(() -> itemRepository.streamExportRows().close());
+        assertIndexed(() -> itemRepository.streamExportRowsByOwnerId(7L).close());
+        assertIndexed(() -> bookingRepository.streamExportRows().close());
+        assertIndexed(() -> bookingRepository.streamExportRowsByOwnerId(7L).close());
+        assertIndexed(() -> archivedBookingRepository.streamExportRows().close());
+        assertIndexed(() -> archivedBookingRepository.streamExportRowsByOwnerId(7L).close());
+        assertIndexed(() -> commentRepository.streamExportRows().close());
+        assertIndexed(() -> commentRepository.streamExportRowsByOwnerId(7L).close());
+    }
+
+    private void assertIndexed(Runnable finder) {
+        SqlStatements.clear();
+        finder.run();
+        List<String> statements = SqlStatements.recorded();
+        assertFalse(statements.isEmpty(), "Finder sent no SQL");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(".tableScan"), () -> "Full table scan in plan:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql);
+                 ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+}
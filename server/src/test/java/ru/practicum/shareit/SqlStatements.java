@@ -0,0 +1,31 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL statement Hibernate sends, for tests that check query shapes and counts.
+ */
+public class SqlStatements implements StatementInspector {
+    public static final String INSPECTOR_PROPERTY = "spring.jpa.properties.hibernate.session_factory."
+            + "statement_inspector=ru.practicum.shareit.SqlStatements";
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> recorded() {
+        return new ArrayList<>(STATEMENTS);
+    }
+}
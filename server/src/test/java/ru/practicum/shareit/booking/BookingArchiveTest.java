@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.archive.BookingArchiver;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingForResponse;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.CreateCommentDto;
+import ru.practicum.shareit.item.dto.ItemForResponseDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Archives old finished bookings in chunks and checks that listings, item last bookings and comment
+ * eligibility still see them through the archive.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-archive;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.h2.tcp-server.enabled=false",
+        "shareit.booking.archive.enabled=false",
+        "shareit.booking.archive.batch-size=2",
+        "shareit.booking.archive.retention=6m"
+})
+class BookingArchiveTest {
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+    @Autowired
+    private BookingArchiver archiver;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from job_locks");
+        jdbcTemplate.update("delete from bookings_archive");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from feedbacks");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru'), "
+                + "(2, 'booker', 'booker@mail.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, owner_id, is_available) "
+                + "values (1, 'Drill', 'Drill', 1, true)");
+        insertBooking(1, NOW.minusYears(2), Status.APPROVED);
+        insertBooking(2, NOW.minusYears(1), Status.REJECTED);
+        insertBooking(3, NOW.minusMonths(9), Status.EXPIRED);
+        insertBooking(4, NOW.minusMonths(8), Status.WAITING);
+        insertBooking(5, NOW.minusMonths(1), Status.APPROVED);
+        insertBooking(6, NOW.plusDays(1), Status.APPROVED);
+    }
+
+    @Test
+    void movesFinishedBookingsOlderThanRetention() {
+        assertEquals(3, archiver.archive());
+
+        assertEquals(List.of(4L, 5L, 6L), jdbcTemplate.queryForList("select id from bookings order by id", Long.class));
+        assertEquals(List.of(1L, 2L, 3L), jdbcTemplate.queryForList(
+                "select id from bookings_archive order by id", Long.class));
+        assertEquals(0, archiver.archive());
+    }
+
+    @Test
+    void listingsMergeLiveAndArchivedBookings() {
+        archiver.archive();
+
+        assertEquals(List.of(6L, 5L, 4L, 3L, 2L, 1L), ids(bookingService.getAllUserBookings(2L, "ALL", 0, 10, null)));
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), ids(bookingService.getAllOwnerBookings(1L, "PAST", 0, 10, null)));
+        assertEquals(List.of(2L), ids(bookingService.getAllOwnerBookings(1L, "REJECTED", 0, 10, null)));
+        assertEquals(List.of(4L, 3L), ids(bookingService.getAllUserBookings(2L, "ALL", 2, 2, null)));
+
+        List<BookingForResponse> first = bookingService.getAllUserBookings(2L, "PAST", 0, 3, null);
+        String after = BookingCursor.of(first.get(first.size() - 1)).encode();
+        assertEquals(List.of(2L, 1L), ids(bookingService.getAllUserBookings(2L, "PAST", 0, 3, after)));
+    }
+
+    @Test
+    void archivedBookingIsFoundById() {
+        archiver.archive();
+
+        BookingForResponse booking = bookingService.getBookingByOwner(1L, 2L);
+
+        assertEquals(Status.REJECTED, booking.getStatus());
+        assertEquals(2L, booking.getBooker().getId());
+        assertEquals(booking, bookingService.getBookingByOwner(2L, 2L));
+    }
+
+    @Test
+    void archivedBookingsStillAllowComments() {
+        jdbcTemplate.update("delete from bookings where id <> 1");
+        archiver.archive();
+
+        CreateCommentDto comment = new CreateCommentDto();
+        comment.setText("Still works");
+
+        assertNotNull(itemService.createComment(2L, 1L, comment));
+    }
+
+    @Test
+    void itemsFallBackToArchivedLastBooking() {
+        jdbcTemplate.update("delete from bookings where id = 5");
+        archiver.archive();
+
+        ItemForResponseDto listed = itemService.getAllItems(1L).get(0);
+        ItemForResponseDto item = itemService.getItemById(1L, 1L);
+
+        for (ItemForResponseDto dto : List.of(listed, item)) {
+            assertEquals(1L, dto.getLastBooking().getId());
+            assertEquals(2L, dto.getLastBooking().getBookerId());
+            assertEquals(6L, dto.getNextBooking().getId());
+        }
+    }
+
+    private List<Long> ids(List<BookingForResponse> bookings) {
+        return bookings.stream().map(BookingForResponse::getId).collect(Collectors.toList());
+    }
+
+    private void insertBooking(long id, LocalDateTime start, Status status) {
+        jdbcTemplate.update("insert into bookings (id, item_id, booker_id, start_time, end_time, status) "
+                        + "values (?, 1, 2, ?, ?, ?)", id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(2)),
+                status.name());
+    }
+}
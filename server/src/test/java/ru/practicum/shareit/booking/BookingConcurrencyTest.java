@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotAvailableException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers booking creation and approval from many threads and checks the database afterwards:
+ * no item may end up with overlapping WAITING or APPROVED bookings, and a booking is approved only once.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-concurrency;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.h2.tcp-server.enabled=false",
+        "logging.level.org.springframework.transaction.interceptor=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class BookingConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+    private static final int BOOKERS = 8;
+    private static final int SLOTS = 12;
+    private static final long OWNER_ID = 1L;
+    private static final long HOT_ITEM_ID = 1L;
+    private static final long SPREAD_FIRST_ITEM_ID = 2L;
+    private static final int SPREAD_ITEMS = 16;
+    private static final long APPROVAL_ITEM_ID = 100L;
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void setUp() {
+        jdbcTemplate.update("insert into users (id, name, email) "
+                + "select x, 'user ' || x, 'user' || x || '@mail.ru' from system_range(1, ?)", BOOKERS + 1);
+        jdbcTemplate.update("insert into items (id, name, description, owner_id, is_available) "
+                + "select x, 'item ' || x, 'item ' || x, ?, true from system_range(1, ?)",
+                OWNER_ID, SPREAD_FIRST_ITEM_ID + SPREAD_ITEMS - 1);
+        jdbcTemplate.update("insert into items (id, name, description, owner_id, is_available) "
+                + "values (?, 'approved item', 'approved item', ?, true)", APPROVAL_ITEM_ID, OWNER_ID);
+    }
+
+    @Test
+    void concurrentBookingsOfOneItemNeverOverlap() throws Exception {
+        int created = bookConcurrently("hot item", HOT_ITEM_ID, 1);
+
+        assertNoOverlaps();
+        assertEquals(created, countBookings(HOT_ITEM_ID, HOT_ITEM_ID));
+        assertTrue(created > 0);
+    }
+
+    @Test
+    void concurrentBookingsOfManyItemsNeverOverlap() throws Exception {
+        long lastItemId = SPREAD_FIRST_ITEM_ID + SPREAD_ITEMS - 1;
+        int created = bookConcurrently("spread items", SPREAD_FIRST_ITEM_ID, SPREAD_ITEMS);
+
+        assertNoOverlaps();
+        assertEquals(created, countBookings(SPREAD_FIRST_ITEM_ID, lastItemId));
+    }
+
+    @Test
+    void concurrentApprovalsApplyOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < 20; round++) {
+                LocalDateTime start = BASE.plusDays(round);
+                jdbcTemplate.update("insert into bookings (item_id, booker_id, start_time, end_time, status) "
+                                + "values (?, 2, ?, ?, 'WAITING')", APPROVAL_ITEM_ID, Timestamp.valueOf(start),
+                        Timestamp.valueOf(start.plusHours(1)));
+                Long bookingId = jdbcTemplate.queryForObject("select max(id) from bookings", Long.class);
+
+                AtomicInteger approved = new AtomicInteger();
+                runConcurrently(executor, 8, () -> {
+                    try {
+                        bookingService.updateBooking(OWNER_ID, bookingId, true);
+                        approved.incrementAndGet();
+                    } catch (NotAvailableException | OptimisticLockingFailureException e) {
+                        // lost the race: already approved, or approved concurrently
+                    }
+                    return null;
+                });
+
+                assertEquals(1, approved.get(), "Booking " + bookingId + " approved more than once");
+                assertEquals(1L, jdbcTemplate.queryForObject(
+                        "select version from bookings where id = ?", Long.class, bookingId));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private int bookConcurrently(String label, long firstItemId, int items) throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long startedAt = System.nanoTime();
+        try {
+            runConcurrently(executor, THREADS, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    long bookerId = 2 + random.nextInt(BOOKERS);
+                    LocalDateTime start = BASE.plusHours(12L * random.nextInt(SLOTS));
+                    CreateBookingDto booking = CreateBookingDto.builder()
+                            .itemId(firstItemId + random.nextInt(items))
+                            .start(start)
+                            .end(start.plusDays(1))
+                            .build();
+                    try {
+                        bookingService.createBooking(bookerId, booking);
+                        created.incrementAndGet();
+                    } catch (NotAvailableException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        log.info("{}: {} threads, {} created, {} rejected, {} attempts/s", label, THREADS, created.get(),
+                rejected.get(), Math.round(THREADS * ATTEMPTS_PER_THREAD / seconds));
+        return created.get();
+    }
+
+    private void runConcurrently(ExecutorService executor, int tasks, Callable<Void> task) throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            futures.add(executor.submit(() -> {
+                gate.await();
+                return task.call();
+            }));
+        }
+        gate.countDown();
+        for (Future<Void> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private void assertNoOverlaps() {
+        List<String> overlaps = jdbcTemplate.queryForList("select a.id || ' and ' || b.id from bookings a "
+                + "join bookings b on b.item_id = a.item_id and b.id > a.id "
+                + "and b.start_time < a.end_time and a.start_time < b.end_time "
+                + "where a.status in ('WAITING', 'APPROVED') and b.status in ('WAITING', 'APPROVED')", String.class);
+        assertTrue(overlaps.isEmpty(), () -> "Double bookings: " + overlaps);
+    }
+
+    private int countBookings(long firstItemId, long lastItemId) {
+        return jdbcTemplate.queryForObject("select count(*) from bookings where item_id between ? and ?",
+                Integer.class, firstItemId, lastItemId);
+    }
+}
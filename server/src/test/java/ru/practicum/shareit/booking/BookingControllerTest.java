@@ -12,6 +12,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingForResponse;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Status;
@@ -26,9 +28,11 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -129,6 +133,30 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookingDto1ForResponse), result);
     }
 
+    @SneakyThrows
+    @Test
+    void updateBatchByOwner() {
+        List<BookingDecisionResult> decisions = List.of(
+                BookingDecisionResult.builder().bookingId(1L).outcome(BookingDecisionResult.Outcome.UPDATED)
+                        .status(Status.REJECTED).build(),
+                BookingDecisionResult.builder().bookingId(2L).outcome(BookingDecisionResult.Outcome.NOT_FOUND)
+                        .build());
+        when(bookingService.updateBookings(eq(owner.getId()), eq(List.of(1L, 2L)), eq(false)))
+                .thenReturn(decisions);
+
+        String result = mockMvc.perform(patch("/bookings")
+                        .param("approved", "false")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(decisions), result);
+    }
+
     @SneakyThrows
     @Test
     void getWithStatusById() {
@@ -163,15 +191,17 @@ public class BookingControllerTest {
                 .status(Status.WAITING)
                 .booker(UserMapper.userOnlyWithIdDto(booker))
                 .item(ItemMapper.toGetBookingDtoFromItem(item)).build();
-        when(bookingService.getAllUserBookings(any(), any(), any(), any()))
+        when(bookingService.getAllUserBookings(any(), any(), any(), any(), any()))
                 .thenReturn(List.of(bookingDto1ForResponse));
 
         String result = mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", booker.getId())
                         .param("state", "ALL")
                         .param("from", "0")
-                        .param("size", "10")
+                        .param("size", "1")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("X-Next-Cursor",
+                        BookingCursor.of(bookingDto1ForResponse).encode()))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
@@ -190,7 +220,7 @@ public class BookingControllerTest {
                 .booker(UserMapper.userOnlyWithIdDto(booker))
                 .item(ItemMapper.toGetBookingDtoFromItem(item)).build();
 
-        when(bookingService.getAllOwnerBookings(any(), any(), any(), any()))
+        when(bookingService.getAllOwnerBookings(any(), any(), any(), any(), any()))
                 .thenReturn(List.of(bookingDto1ForResponse));
 
         String result = mockMvc.perform(get("/bookings/owner")
@@ -200,6 +230,7 @@ public class BookingControllerTest {
                         .param("size", "5")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
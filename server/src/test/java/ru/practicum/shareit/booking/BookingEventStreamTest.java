@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingForResponse;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.events.BookingEvent;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Subscribes to the booking event stream over HTTP and checks that creating and approving a booking
+ * reach the owner and the booker after commit, including changes another node wrote to the outbox.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-events;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.h2.tcp-server.enabled=false"
+})
+class BookingEventStreamTest {
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru'), "
+                + "(2, 'booker', 'booker@mail.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, owner_id, is_available) "
+                + "values (1, 'Drill', 'Drill', 1, true)");
+    }
+
+    @Test
+    void bookingChangesReachOwnerAndBooker() throws Exception {
+        try (Stream<String> ownerStream = subscribe(OWNER_ID).body();
+             Stream<String> bookerStream = subscribe(BOOKER_ID).body()) {
+            Iterator<String> owner = ownerStream.iterator();
+            Iterator<String> booker = bookerStream.iterator();
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            BookingForResponse booking = bookingService.createBooking(BOOKER_ID, CreateBookingDto.builder()
+                    .itemId(1L).start(start).end(start.plusDays(1)).build());
+
+            String created = nextEvent(owner);
+            assertTrue(created.contains("\"type\":\"CREATED\""), created);
+            assertTrue(created.contains("\"bookingId\":" + booking.getId()), created);
+            assertTrue(nextEvent(booker).contains("\"status\":\"WAITING\""));
+
+            bookingService.updateBooking(OWNER_ID, booking.getId(), true);
+
+            assertTrue(nextEvent(booker).contains("\"status\":\"APPROVED\""));
+            assertTrue(nextEvent(owner).contains("\"type\":\"STATUS_CHANGED\""));
+        }
+    }
+
+    @Test
+    void bookingChangesFromOtherNodesReachSubscribers() throws Exception {
+        try (Stream<String> ownerStream = subscribe(OWNER_ID).body()) {
+            Iterator<String> owner = ownerStream.iterator();
+            BookingEvent event = BookingEvent.builder()
+                    .type(BookingEvent.Type.CREATED)
+                    .bookingId(77L)
+                    .itemId(1L)
+                    .ownerId(OWNER_ID)
+                    .bookerId(BOOKER_ID)
+                    .status(Status.WAITING)
+                    .build();
+            // Written without this node's after-commit hook, the way a booking made on another node arrives.
+            jdbcTemplate.update("insert into outbox (aggregate_type, aggregate_id, event_type, payload, created_date) "
+                    + "values ('booking', 77, 'CREATED', ?, now())", objectMapper.writeValueAsString(event));
+
+            assertTrue(nextEvent(owner).contains("\"bookingId\":77"));
+        }
+    }
+
+    @Test
+    void unknownUserCannotSubscribe() throws Exception {
+        HttpResponse<Stream<String>> response = subscribe(99L);
+        response.body().close();
+
+        assertEquals(404, response.statusCode());
+    }
+
+    private HttpResponse<Stream<String>> subscribe(long userId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings/events"))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .header("Accept", "text/event-stream, application/json")
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofLines()).get(10, TimeUnit.SECONDS);
+    }
+
+    private String nextEvent(Iterator<String> lines) {
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.startsWith("data:")) {
+                return line;
+            }
+        }
+        return fail("Event stream closed");
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.expiry.BookingExpirySweeper;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.scheduling.JobLock;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the expiry sweeper against the database in chunks smaller than the number of stale bookings,
+ * and checks that a node without the job lease leaves the bookings alone.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-expiry;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.h2.tcp-server.enabled=false",
+        "shareit.booking.expiry.enabled=false",
+        "shareit.booking.expiry.batch-size=3"
+})
+class BookingExpiryTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private BookingExpirySweeper sweeper;
+    @Autowired
+    private JobLock jobLock;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from job_locks");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru'), "
+                + "(2, 'booker', 'booker@mail.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, owner_id, is_available) "
+                + "values (1, 'Drill', 'Drill', 1, true)");
+        for (int day = 1; day <= 7; day++) {
+            insertBooking(NOW.minusDays(day), Status.WAITING);
+        }
+        insertBooking(NOW.minusDays(1), Status.APPROVED);
+        insertBooking(NOW.plusDays(1), Status.WAITING);
+    }
+
+    @Test
+    void expiresStartedWaitingBookingsInChunks() {
+        assertEquals(7, sweeper.sweep());
+
+        assertEquals(List.of("APPROVED", "EXPIRED", "WAITING"), jdbcTemplate.queryForList(
+                "select distinct status from bookings order by status", String.class));
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "select count(*) from bookings where status = 'EXPIRED' and version = 1", Integer.class));
+        assertEquals(0, sweeper.sweep());
+    }
+
+    @Test
+    void onlyTheLeaseHolderSweeps() {
+        jdbcTemplate.update("insert into job_locks (name, locked_until, locked_by) values ('booking-expiry', ?, "
+                + "'another node')", Timestamp.valueOf(LocalDateTime.now().plusMinutes(5)));
+
+        assertEquals(-1, sweeper.sweep());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from bookings where status = 'EXPIRED'", Integer.class));
+    }
+
+    @Test
+    void expiredLeaseCanBeTakenOver() {
+        jdbcTemplate.update("insert into job_locks (name, locked_until, locked_by) values ('report', ?, "
+                + "'crashed node')", Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+
+        assertTrue(jobLock.tryAcquire("report", Duration.ofMinutes(1)));
+        assertTrue(jobLock.tryAcquire("report", Duration.ofMinutes(1)));
+        jdbcTemplate.update("update job_locks set locked_by = 'another node' where name = 'report'");
+        assertFalse(jobLock.tryAcquire("report", Duration.ofMinutes(1)));
+    }
+
+    private void insertBooking(LocalDateTime start, Status status) {
+        jdbcTemplate.update("insert into bookings (item_id, booker_id, start_time, end_time, status) "
+                        + "values (1, 2, ?, ?, ?)", Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(3)),
+                status.name());
+    }
+}
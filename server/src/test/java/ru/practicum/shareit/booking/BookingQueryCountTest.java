@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.SqlStatements;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.dto.BookingForResponse;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.validation.ExistenceCache;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Booking listings must load a page with its items and bookers in a single statement per storage tier,
+ * whatever the page size. Listings that can reach archived bookings read the archive only when the live page
+ * does not already cover them.
+ * The user check is served by the existence cache, which is warmed up front.
+ * A batch decision costs one ownership query and one update, plus an outbox row per decided booking.
+ */
+@SpringBootTest(properties = {
+        SqlStatements.INSPECTOR_PROPERTY,
+        "spring.datasource.url=jdbc:h2:mem:booking-queries;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.h2.tcp-server.enabled=false",
+        "shareit.outbox.relay.enabled=false"
+})
+@Transactional
+class BookingQueryCountTest {
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final Set<String> ARCHIVED_STATES = Set.of("ALL", "PAST", "REJECTED");
+    private static final Status[] STATUSES = {Status.WAITING, Status.APPROVED, Status.REJECTED};
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ExistenceCache existenceCache;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru'), "
+                + "(2, 'booker 2', 'booker2@mail.ru'), (3, 'booker 3', 'booker3@mail.ru'), "
+                + "(4, 'booker 4', 'booker4@mail.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, owner_id, is_available) values "
+                + "(1, 'Drill', 'Drill', 1, true), (2, 'Saw', 'Saw', 1, true), (3, 'Ladder', 'Ladder', 1, true)");
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 30; i++) {
+            LocalDateTime start = now.plusHours((i - 15) * 24L - 1);
+            jdbcTemplate.update("insert into bookings (id, item_id, booker_id, start_time, end_time, status) "
+                            + "values (?, ?, ?, ?, ?, ?)", i, i % 3 + 1, i % 3 + 2, Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusDays(2)), STATUSES[(i / 3) % 3].name());
+        }
+        existenceCache.putUser(1L);
+        existenceCache.putUser(2L);
+    }
+
+    @Test
+    void bookerListingsUseOneStatementPerTier() {
+        for (String state : STATES) {
+            List<BookingForResponse> page = assertListingStatements(state, 20,
+                    () -> bookingService.getAllUserBookings(2L, state, 0, 20, null));
+            assertFalse(page.isEmpty(), state);
+        }
+    }
+
+    @Test
+    void ownerListingsUseOneStatementPerTier() {
+        for (String state : STATES) {
+            List<BookingForResponse> page = assertListingStatements(state, 20,
+                    () -> bookingService.getAllOwnerBookings(1L, state, 0, 20, null));
+            assertFalse(page.isEmpty(), state);
+        }
+    }
+
+    @Test
+    void cursorPagesUseOneStatementPerTier() {
+        List<BookingForResponse> first = bookingService.getAllOwnerBookings(1L, "ALL", 0, 5, null);
+        String after = BookingCursor.of(first.get(first.size() - 1)).encode();
+
+        for (String state : STATES) {
+            assertListingStatements(state, 5, () -> bookingService.getAllOwnerBookings(1L, state, 0, 5, after));
+            assertListingStatements(state, 5, () -> bookingService.getAllUserBookings(2L, state, 0, 5, after));
+        }
+    }
+
+    @Test
+    void fullRecentPageSkipsTheArchive() {
+        for (String state : ARCHIVED_STATES) {
+            SqlStatements.clear();
+            List<BookingForResponse> page = bookingService.getAllOwnerBookings(1L, state, 0, 2, null);
+            assertEquals(2, page.size(), state);
+            assertEquals(1, SqlStatements.recorded().size(), state);
+        }
+    }
+
+    @Test
+    void batchDecisionUsesOwnershipQueryAndOneUpdate() {
+        int decided = 5;
+        List<Long> ids = List.of(1L, 2L, 3L, 9L, 10L, 11L);
+        entityManager.clear();
+        SqlStatements.clear();
+
+        List<BookingDecisionResult> results = bookingService.updateBookings(1L, ids, true);
+
+        List<String> statements = SqlStatements.recorded();
+        assertEquals(2 + decided, statements.size(), () -> String.join("\n", statements));
+        assertEquals(decided, statements.stream().filter(sql -> sql.startsWith("insert into public.outbox")).count());
+        assertEquals(ids, results.stream().map(BookingDecisionResult::getBookingId).collect(Collectors.toList()));
+        assertEquals(List.of("APPROVED"), jdbcTemplate.queryForList(
+                "select distinct status from bookings where id in (1, 2, 9, 10, 11)", String.class));
+        assertEquals(BookingDecisionResult.Outcome.NOT_WAITING, results.get(2).getOutcome());
+    }
+
+    /**
+     * All bookings here are recent, so only a page that runs out of live bookings goes on to the archive.
+     */
+    private List<BookingForResponse> assertListingStatements(String state, int size,
+                                                             Supplier<List<BookingForResponse>> listing) {
+        entityManager.clear();
+        SqlStatements.clear();
+        List<BookingForResponse> page = listing.get();
+        page.forEach(booking -> {
+            assertNotNull(booking.getItem().getName());
+            assertNotNull(booking.getBooker().getId());
+        });
+        List<String> statements = SqlStatements.recorded();
+        int expected = ARCHIVED_STATES.contains(state) && page.size() < size ? 2 : 1;
+        assertEquals(expected, statements.size(), () -> state + "\n" + String.join("\n", statements));
+        return page;
+    }
+}
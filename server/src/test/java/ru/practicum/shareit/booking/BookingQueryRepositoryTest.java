@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.query.BookingFilter;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-query;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BookingQueryRepositoryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 10, 12, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru'), "
+                + "(2, 'booker 2', 'booker2@mail.ru'), (3, 'booker 3', 'booker3@mail.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, owner_id, is_available) values "
+                + "(1, 'Drill', 'Drill', 1, true), (2, 'Saw', 'Saw', 1, true), (3, 'Ladder', 'Ladder', 2, true)");
+        insertBooking(1, 1, 2, NOW.minusDays(10), NOW.minusDays(8), Status.APPROVED);
+        insertBooking(2, 1, 3, NOW.minusDays(1), NOW.plusDays(1), Status.APPROVED);
+        insertBooking(3, 2, 2, NOW.plusDays(5), NOW.plusDays(6), Status.WAITING);
+        insertBooking(4, 2, 3, NOW.plusDays(5), NOW.plusDays(7), Status.REJECTED);
+        insertBooking(5, 3, 1, NOW.plusDays(2), NOW.plusDays(3), Status.WAITING);
+        archiveBooking(6, 1, 2, NOW.minusDays(400), NOW.minusDays(399), Status.APPROVED);
+        archiveBooking(7, 2, 3, NOW.minusDays(500), NOW.minusDays(498), Status.REJECTED);
+    }
+
+    @Test
+    void bookerSeesOwnBookingsNewestFirst() {
+        assertEquals(List.of(3L, 1L), ids(filter(BookingFilter.Role.BOOKER, 2L, BookingState.ALL)));
+    }
+
+    @Test
+    void ownerStatesSelectMatchingBookings() {
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(filter(BookingFilter.Role.OWNER, 1L, BookingState.ALL)));
+        assertEquals(List.of(2L), ids(filter(BookingFilter.Role.OWNER, 1L, BookingState.CURRENT)));
+        assertEquals(List.of(1L), ids(filter(BookingFilter.Role.OWNER, 1L, BookingState.PAST)));
+        assertEquals(List.of(4L, 3L), ids(filter(BookingFilter.Role.OWNER, 1L, BookingState.FUTURE)));
+        assertEquals(List.of(3L), ids(filter(BookingFilter.Role.OWNER, 1L, BookingState.WAITING)));
+        assertEquals(List.of(4L), ids(filter(BookingFilter.Role.OWNER, 1L, BookingState.REJECTED)));
+    }
+
+    @Test
+    void cursorContinuesPastEqualStarts() {
+        BookingFilter first = filter(BookingFilter.Role.OWNER, 1L, BookingState.ALL).toBuilder().limit(1).build();
+
+        assertEquals(List.of(4L), ids(first));
+        assertEquals(List.of(3L), ids(first.toBuilder().after(new BookingCursor(NOW.plusDays(5), 4L)).build()));
+        assertEquals(List.of(2L), ids(first.toBuilder().after(new BookingCursor(NOW.plusDays(5), 3L)).build()));
+    }
+
+    @Test
+    void optionalFiltersNarrowTheListing() {
+        BookingFilter all = filter(BookingFilter.Role.OWNER, 1L, BookingState.ALL);
+
+        assertEquals(List.of(4L, 3L), ids(all.toBuilder().itemIds(List.of(2L)).build()));
+        assertEquals(List.of(2L, 1L), ids(all.toBuilder().statuses(Set.of(Status.APPROVED)).build()));
+        assertEquals(List.of(4L, 3L, 2L), ids(all.toBuilder()
+                .rangeStart(NOW.minusDays(2))
+                .rangeEnd(NOW.plusDays(5).plusHours(1))
+                .build()));
+    }
+
+    @Test
+    void offsetSkipsWholeRows() {
+        BookingFilter page = filter(BookingFilter.Role.OWNER, 1L, BookingState.ALL).toBuilder()
+                .offset(2).limit(2).build();
+
+        assertEquals(List.of(2L, 1L), ids(page));
+    }
+
+    @Test
+    void pastListingsReachIntoTheArchive() {
+        BookingFilter past = filter(BookingFilter.Role.BOOKER, 2L, BookingState.PAST);
+
+        assertEquals(List.of(1L), ids(past));
+        assertEquals(List.of(1L, 6L), ids(past.toBuilder().archivedBefore(NOW.minusDays(365)).build()));
+        assertEquals(List.of(7L), ids(filter(BookingFilter.Role.OWNER, 1L, BookingState.REJECTED).toBuilder()
+                .statuses(Set.of(Status.REJECTED)).archivedBefore(NOW.minusDays(365)).offset(1).build()));
+    }
+
+    @Test
+    void archivedPagesContinueTheLiveListing() {
+        BookingFilter all = filter(BookingFilter.Role.OWNER, 1L, BookingState.ALL).toBuilder()
+                .archivedBefore(NOW.minusDays(365)).limit(3).build();
+
+        assertEquals(List.of(4L, 3L, 2L), ids(all));
+        assertEquals(List.of(1L, 6L, 7L), ids(all.toBuilder().offset(3).build()));
+        assertEquals(List.of(6L, 7L), ids(all.toBuilder().after(new BookingCursor(NOW.minusDays(10), 1L)).build()));
+        assertEquals(List.of(4L, 3L), ids(filter(BookingFilter.Role.OWNER, 1L, BookingState.FUTURE).toBuilder()
+                .archivedBefore(NOW.minusDays(365)).build()));
+    }
+
+    private BookingFilter filter(BookingFilter.Role role, Long userId, BookingState state) {
+        return BookingFilter.builder().role(role).userId(userId).state(state).now(NOW).limit(20).build();
+    }
+
+    private List<Long> ids(BookingFilter filter) {
+        return bookingRepository.findPage(filter).stream().map(Booking::getId).collect(Collectors.toList());
+    }
+
+    private void archiveBooking(long id, long itemId, long bookerId, LocalDateTime start, LocalDateTime end,
+                                Status status) {
+        jdbcTemplate.update("insert into bookings_archive (id, item_id, booker_id, start_time, end_time, status, "
+                        + "version, archived_at) values (?, ?, ?, ?, ?, ?, 0, ?)", id, itemId, bookerId,
+                Timestamp.valueOf(start), Timestamp.valueOf(end), status.name(), Timestamp.valueOf(NOW));
+    }
+
+    private void insertBooking(long id, long itemId, long bookerId, LocalDateTime start, LocalDateTime end,
+                               Status status) {
+        jdbcTemplate.update("insert into bookings (id, item_id, booker_id, start_time, end_time, status) "
+                        + "values (?, ?, ?, ?, ?, ?)", id, itemId, bookerId, Timestamp.valueOf(start),
+                Timestamp.valueOf(end), status.name());
+    }
+}
@@ -5,31 +5,42 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.archive.BookingArchiver;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingForResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.events.BookingEvent;
+import ru.practicum.shareit.booking.events.BookingEventStream;
+import ru.practicum.shareit.booking.lock.ItemLocks;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.query.BookingFilter;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.validation.ValidationService;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static ru.practicum.shareit.booking.model.Status.REJECTED;
@@ -43,6 +54,16 @@ class BookingServiceTest {
     private BookingRepository bookingRepository;
     @Mock
     private ValidationService validationService;
+    @Mock
+    private ItemAvailabilityIndex availabilityIndex;
+    @Mock
+    private ItemLocks itemLocks;
+    @Mock
+    private BookingEventStream eventStream;
+    @Mock
+    private Outbox outbox;
+    @Mock
+    private BookingArchiver archiver;
 
     private Item item;
     private User user;
@@ -117,12 +138,39 @@ class BookingServiceTest {
         assertEquals(createBookingDto.getStart(), savedBookingForResponse.getStart());
         assertEquals(createBookingDto.getEnd(), savedBookingForResponse.getEnd());
         assertEquals(createBookingDto.getItemId(), savedBookingForResponse.getItem().getId());
+        InOrder inOrder = inOrder(itemLocks, validationService);
+        inOrder.verify(itemLocks).lockUntilCompletion(item.getId());
+        inOrder.verify(validationService).validateBooking(createBookingDto, item, user);
+        verify(availabilityIndex, never()).reload(anyLong());
+        verify(outbox).record(Outbox.BOOKING, booking.getId(), "CREATED", BookingEvent.builder()
+                .type(BookingEvent.Type.CREATED)
+                .bookingId(booking.getId())
+                .itemId(item.getId())
+                .ownerId(user.getId())
+                .bookerId(user.getId())
+                .status(booking.getStatus())
+                .build());
     }
 
     @Test
-    public void testUpdateBooking() {
+    public void testCreateBooking_ClusterWideLockReloadsAvailability() {
+        when(bookingRepository.save(any())).thenReturn(booking);
         when(validationService.isExistUser(anyLong())).thenReturn(user);
+        when(validationService.isExistItem(anyLong())).thenReturn(item);
+        when(itemLocks.isClusterWide()).thenReturn(true);
+
+        bookingService.createBooking(user.getId(), createBookingDto);
+
+        InOrder inOrder = inOrder(itemLocks, availabilityIndex, validationService);
+        inOrder.verify(itemLocks).lockUntilCompletion(item.getId());
+        inOrder.verify(availabilityIndex).reload(item.getId());
+        inOrder.verify(validationService).validateBooking(createBookingDto, item, user);
+    }
+
+    @Test
+    public void testUpdateBooking() {
         when(validationService.isExistBooking(anyLong())).thenReturn(booking);
+        when(validationService.getItemOwnerId(item.getId())).thenReturn(user.getId());
         when(bookingRepository.save(any())).thenReturn(booking);
 
         BookingForResponse updatedBookingForResponse = bookingService
@@ -149,7 +197,6 @@ class BookingServiceTest {
 
         createBookingDto.setItemId(itemId);
 
-        when(validationService.isExistUser(userId)).thenReturn(user);
         when(validationService.isExistItem(itemId)).thenThrow(new NotFoundException("Item not found"));
 
         Assertions.assertThrows(NotFoundException.class, () -> {
@@ -165,7 +212,6 @@ class BookingServiceTest {
         createBookingDto.setItemId(itemId);
         item.setAvailable(false);
 
-        when(validationService.isExistUser(userId)).thenReturn(user);
         when(validationService.isExistItem(itemId)).thenReturn(item);
 
         Assertions.assertThrows(NotAvailableException.class, () -> {
@@ -178,7 +224,7 @@ class BookingServiceTest {
         Long userId = 1L;
         Long bookingId = 2L;
 
-        when(validationService.isExistUser(userId)).thenThrow(new NotFoundException("User not found"));
+        doThrow(new NotFoundException("User not found")).when(validationService).checkUserExists(userId);
 
         Assertions.assertThrows(NotFoundException.class, () -> {
             bookingService.updateBooking(userId, bookingId, true);
@@ -190,7 +236,6 @@ class BookingServiceTest {
         Long userId = 1L;
         Long bookingId = 2L;
 
-        when(validationService.isExistUser(userId)).thenReturn(user);
         when(validationService.isExistBooking(bookingId)).thenThrow(new NotFoundException("Booking not found"));
 
         Assertions.assertThrows(NotFoundException.class, () -> {
@@ -204,18 +249,139 @@ class BookingServiceTest {
         Long bookingId = booking.getId();
         booking.setStatus(Status.APPROVED);
 
-        when(validationService.isExistUser(userId)).thenReturn(user);
         when(validationService.isExistBooking(bookingId)).thenReturn(booking);
+        when(validationService.getItemOwnerId(item.getId())).thenReturn(user.getId());
 
         Assertions.assertThrows(NotAvailableException.class, () -> {
             bookingService.updateBooking(userId, bookingId, true);
         });
     }
 
+    @Test
+    public void testUpdateBookings_ReportsOutcomePerId() {
+        when(bookingRepository.findStatusesOwnedBy(any(), eq(1L))).thenReturn(List.of(
+                statusView(10L, 1L, WAITING), statusView(11L, 1L, Status.APPROVED), statusView(12L, 2L, WAITING)));
+        when(bookingRepository.updateStatuses(List.of(10L, 12L), WAITING, Status.APPROVED)).thenReturn(2);
+
+        List<BookingDecisionResult> results = bookingService.updateBookings(1L, List.of(10L, 11L, 12L, 13L, 10L), true);
+
+        assertEquals(List.of(
+                decision(10L, BookingDecisionResult.Outcome.UPDATED, Status.APPROVED),
+                decision(11L, BookingDecisionResult.Outcome.NOT_WAITING, Status.APPROVED),
+                decision(12L, BookingDecisionResult.Outcome.UPDATED, Status.APPROVED),
+                decision(13L, BookingDecisionResult.Outcome.NOT_FOUND, null)), results);
+        verify(validationService).checkUserExists(1L);
+        verify(availabilityIndex, never()).evict(anyLong());
+        verify(outbox, times(2)).record(eq(Outbox.BOOKING), anyLong(), eq("STATUS_CHANGED"), any());
+    }
+
+    @Test
+    public void testUpdateBookings_RejectEvictsItems() {
+        when(bookingRepository.findStatusesOwnedBy(any(), eq(1L))).thenReturn(List.of(
+                statusView(10L, 1L, WAITING), statusView(12L, 2L, WAITING), statusView(14L, 1L, WAITING)));
+        when(bookingRepository.updateStatuses(any(), eq(WAITING), eq(REJECTED))).thenReturn(3);
+
+        bookingService.updateBookings(1L, List.of(10L, 12L, 14L), false);
+
+        verify(availabilityIndex).evict(1L);
+        verify(availabilityIndex).evict(2L);
+    }
+
+    @Test
+    public void testUpdateBookings_ConcurrentChange() {
+        when(bookingRepository.findStatusesOwnedBy(any(), eq(1L))).thenReturn(List.of(
+                statusView(10L, 1L, WAITING), statusView(12L, 2L, WAITING)));
+        when(bookingRepository.updateStatuses(List.of(10L, 12L), WAITING, Status.APPROVED)).thenReturn(1);
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> bookingService.updateBookings(1L, List.of(10L, 12L), true));
+    }
+
+    @Test
+    public void testUpdateBookings_NothingToDecide() {
+        when(bookingRepository.findStatusesOwnedBy(any(), eq(1L))).thenReturn(List.of());
+
+        List<BookingDecisionResult> results = bookingService.updateBookings(1L, List.of(10L), true);
+
+        assertEquals(List.of(decision(10L, BookingDecisionResult.Outcome.NOT_FOUND, null)), results);
+        verify(bookingRepository, never()).updateStatuses(any(), any(), any());
+    }
+
+    @Test
+    public void testUpdateBooking_RejectedBookingCannotBeApproved() {
+        booking.setStatus(REJECTED);
+        when(validationService.isExistBooking(anyLong())).thenReturn(booking);
+        when(validationService.getItemOwnerId(item.getId())).thenReturn(user.getId());
+
+        Assertions.assertThrows(NotAvailableException.class,
+                () -> bookingService.updateBooking(user.getId(), booking.getId(), true));
+        verify(bookingRepository, never()).save(any());
+        verify(outbox, never()).record(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testUpdateBooking_ExpiredBooking() {
+        booking.setStatus(Status.EXPIRED);
+        when(validationService.isExistBooking(anyLong())).thenReturn(booking);
+        when(validationService.getItemOwnerId(item.getId())).thenReturn(user.getId());
+
+        Assertions.assertThrows(NotAvailableException.class,
+                () -> bookingService.updateBooking(user.getId(), booking.getId(), true));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    public void testExpireStaleBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findWaitingStartedBefore(now, 10)).thenReturn(List.of(
+                statusView(10L, 1L, WAITING), statusView(12L, 2L, WAITING), statusView(14L, 1L, WAITING)));
+        when(bookingRepository.updateStatuses(List.of(10L, 12L, 14L), WAITING, Status.EXPIRED)).thenReturn(3);
+
+        assertEquals(3, bookingService.expireStaleBookings(now, 10));
+
+        verify(availabilityIndex).evict(1L);
+        verify(availabilityIndex).evict(2L);
+        verify(bookingRepository, never()).findStatuses(any());
+        verify(outbox).record(Outbox.BOOKING, 12L, "STATUS_CHANGED", BookingEvent.builder()
+                .type(BookingEvent.Type.STATUS_CHANGED)
+                .bookingId(12L)
+                .itemId(2L)
+                .ownerId(1L)
+                .bookerId(3L)
+                .status(Status.EXPIRED)
+                .build());
+    }
+
+    @Test
+    public void testExpireStaleBookings_SkipsBookingsDecidedConcurrently() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findWaitingStartedBefore(now, 10)).thenReturn(List.of(
+                statusView(10L, 1L, WAITING), statusView(12L, 2L, WAITING)));
+        when(bookingRepository.updateStatuses(List.of(10L, 12L), WAITING, Status.EXPIRED)).thenReturn(1);
+        when(bookingRepository.findStatuses(List.of(10L, 12L))).thenReturn(List.of(
+                statusView(10L, 1L, Status.APPROVED), statusView(12L, 2L, Status.EXPIRED)));
+
+        assertEquals(1, bookingService.expireStaleBookings(now, 10));
+
+        verify(availabilityIndex, never()).evict(1L);
+        verify(availabilityIndex).evict(2L);
+        verify(outbox).record(eq(Outbox.BOOKING), eq(12L), eq("STATUS_CHANGED"), any());
+        verify(outbox, never()).record(eq(Outbox.BOOKING), eq(10L), any(), any());
+    }
+
+    @Test
+    public void testExpireStaleBookings_NothingToExpire() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findWaitingStartedBefore(now, 10)).thenReturn(List.of());
+
+        assertEquals(0, bookingService.expireStaleBookings(now, 10));
+        verify(bookingRepository, never()).updateStatuses(any(), any(), any());
+    }
+
     @Test
     public void testUpdateBooking_RejectBooking() {
-        when(validationService.isExistUser(anyLong())).thenReturn(user);
         when(validationService.isExistBooking(anyLong())).thenReturn(booking);
+        when(validationService.getItemOwnerId(item.getId())).thenReturn(user.getId());
         when(bookingRepository.save(any())).thenReturn(booking);
 
         BookingForResponse updatedBookingForResponse = bookingService
@@ -223,6 +389,14 @@ class BookingServiceTest {
 
         Assertions.assertNotNull(updatedBookingForResponse);
         assertEquals(REJECTED, booking.getStatus());
+        verify(outbox).record(Outbox.BOOKING, booking.getId(), "STATUS_CHANGED", BookingEvent.builder()
+                .type(BookingEvent.Type.STATUS_CHANGED)
+                .bookingId(booking.getId())
+                .itemId(item.getId())
+                .ownerId(user.getId())
+                .bookerId(booking.getBooker().getId())
+                .status(REJECTED)
+                .build());
     }
 
     @Test
@@ -234,9 +408,10 @@ class BookingServiceTest {
 
         booking.setId(bookingId);
         booking.getItem().setOwner(user);
+        booking.setBooker(User.builder().id(2L).build());
 
-        when(validationService.isExistUser(userId)).thenReturn(user);
-        when(validationService.isExistBooking(bookingId)).thenReturn(booking);
+        when(validationService.isExistBookingOrArchived(bookingId)).thenReturn(booking);
+        when(validationService.getItemOwnerId(item.getId())).thenReturn(userId);
 
         BookingForResponse bookingForResponse = bookingService.getBookingByOwner(userId, bookingId);
 
@@ -254,8 +429,7 @@ class BookingServiceTest {
         booking.setId(bookingId);
         booking.setBooker(user);
 
-        when(validationService.isExistUser(userId)).thenReturn(user);
-        when(validationService.isExistBooking(bookingId)).thenReturn(booking);
+        when(validationService.isExistBookingOrArchived(bookingId)).thenReturn(booking);
 
         BookingForResponse bookingForResponse = bookingService.getBookingByOwner(userId, bookingId);
 
@@ -268,7 +442,7 @@ class BookingServiceTest {
         Long userId = 1L;
         Long bookingId = 2L;
 
-        when(validationService.isExistUser(userId)).thenThrow(new NotFoundException("User not found"));
+        doThrow(new NotFoundException("User not found")).when(validationService).checkUserExists(userId);
 
         Assertions.assertThrows(NotFoundException.class, () -> {
             bookingService.getBookingByOwner(userId, bookingId);
@@ -280,8 +454,8 @@ class BookingServiceTest {
         Long userId = 1L;
         Long bookingId = 2L;
 
-        when(validationService.isExistUser(userId)).thenReturn(new User());
-        when(validationService.isExistBooking(bookingId)).thenThrow(new NotFoundException("Booking not found"));
+        when(validationService.isExistBookingOrArchived(bookingId))
+                .thenThrow(new NotFoundException("Booking not found"));
 
         Assertions.assertThrows(NotFoundException.class, () -> {
             bookingService.getBookingByOwner(userId, bookingId);
@@ -298,8 +472,8 @@ class BookingServiceTest {
         booking.setId(bookingId);
         booking.getItem().setOwner(user);
 
-        when(validationService.isExistUser(userId)).thenReturn(user);
-        when(validationService.isExistBooking(bookingId)).thenReturn(booking);
+        when(validationService.isExistBookingOrArchived(bookingId)).thenReturn(booking);
+        when(validationService.getItemOwnerId(item.getId())).thenReturn(user.getId());
 
         Assertions.assertThrows(NotFoundException.class, () -> {
             bookingService.getBookingByOwner(userId, bookingId);
@@ -308,393 +482,181 @@ class BookingServiceTest {
 
     @Test
     public void testGetAllUserBookings_ValidState() {
-        Long userId = 1L;
-        String state = "CURRENT";
-        Integer from = 0;
-        Integer size = 10;
-
-        user.setId(userId);
-
-        LocalDateTime nowDateTime = LocalDateTime.now();
-
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
+        when(bookingRepository.findPage(any(BookingFilter.class))).thenReturn(List.of(booking));
 
-        List<Booking> bookings = new ArrayList<>();
-        bookings.add(booking);
+        List<BookingForResponse> bookingForResponses = bookingService.getAllUserBookings(1L, "current", 0, 10, null);
 
-        when(validationService.isExistUser(userId)).thenReturn(user);
-        when(bookingRepository.findAllByBookerAndStartBeforeAndEndAfterOrderByStartDesc(
-                any(User.class), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(bookings);
-
-        List<BookingForResponse> bookingForResponses = bookingService.getAllUserBookings(userId, state, from, size);
-
-        assertNotNull(bookingForResponses);
         assertEquals(1, bookingForResponses.size());
+        BookingFilter filter = capturedFilter();
+        assertEquals(BookingFilter.Role.BOOKER, filter.getRole());
+        assertEquals(1L, filter.getUserId());
+        assertEquals(BookingState.CURRENT, filter.getState());
+        Assertions.assertNotNull(filter.getNow());
+        assertEquals(0, filter.getOffset());
+        assertEquals(10, filter.getLimit());
+        assertNull(filter.getAfter());
     }
 
     @Test
     public void testGetAllUserBookings_InvalidState() {
-        Long userId = 1L;
-        String state = "UNSUPPORTED_STATUS";
-        Integer from = 0;
-        Integer size = 10;
+        Assertions.assertThrows(ValidationException.class, () ->
+                bookingService.getAllUserBookings(1L, "UNSUPPORTED_STATUS", 0, 10, null));
 
-        when(validationService.isExistUser(userId)).thenReturn(user);
-
-        Assertions.assertThrows(ValidationException.class, () -> {
-            bookingService.getAllUserBookings(userId, state, from, size);
-        });
+        verify(bookingRepository, never()).findPage(any());
     }
 
     @Test
-    public void testGetAllUserBookings_StateAll() {
-        Long userId = 1L;
-        String state = "ALL";
-        Integer from = 0;
-        Integer size = 10;
-        user.setId(userId);
-
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
-
-        List<Booking> bookings = new ArrayList<>();
-        bookings.add(booking);
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-        when(bookingRepository.findAllByBookerOrderByStartDesc(user, pageable)).thenReturn(bookings);
+    public void testGetAllUserBookings_UnknownUser() {
+        doThrow(new NotFoundException("User not found in DB.")).when(validationService).checkUserExists(99L);
 
-        List<BookingForResponse> bookingForResponses = bookingService.getAllUserBookings(userId, state, from, size);
+        Assertions.assertThrows(NotFoundException.class, () ->
+                bookingService.getAllUserBookings(99L, "ALL", 0, 10, null));
 
-        verify(validationService).isExistUser(userId);
-
-        verify(bookingRepository).findAllByBookerOrderByStartDesc(user, pageable);
-
-        assertEquals(bookings.size(), bookingForResponses.size());
+        verify(bookingRepository, never()).findPage(any());
     }
 
     @Test
-    public void testGetAllUserBookings_FutureState() {
-        Long userId = 1L;
-        String state = "FUTURE";
-        int from = 0;
-        int size = 10;
-        LocalDateTime nowDateTime = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
-
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-
-        booking.setId(1L);
-        booking.setStart(nowDateTime.plusDays(10));
-        booking.setEnd(nowDateTime.plusDays(15));
-        booking.setStatus(WAITING);
-
-        booking2.setId(2L);
-        booking2.setStart(nowDateTime.plusDays(9));
-        booking2.setEnd(nowDateTime.plusDays(16));
-        booking2.setStatus(REJECTED);
-
-        List<Booking> bookings = Arrays.asList(booking, booking2);
-
-
-        when(bookingRepository.findAllByBookerAndStartIsAfterOrderByStartDesc(
-                eq(user), any(LocalDateTime.class), eq(pageable)))
-                .thenReturn(bookings);
+    public void testGetAllUserBookings_StateAll() {
+        when(bookingRepository.findPage(any(BookingFilter.class))).thenReturn(Arrays.asList(booking, booking2));
 
-        List<BookingForResponse> result = bookingService.getAllUserBookings(userId, state, from, size);
+        List<BookingForResponse> result = bookingService.getAllUserBookings(1L, "ALL", 0, 10, null);
 
+        verify(validationService).checkUserExists(1L);
         assertEquals(2, result.size());
         assertEquals(1L, result.get(0).getId());
         assertEquals(2L, result.get(1).getId());
+        assertEquals(BookingState.ALL, capturedFilter().getState());
     }
 
     @Test
-    public void testGetAllUserBookings_PastState() {
-        Long userId = 1L;
-        String state = "PAST";
-        int from = 0;
-        int size = 10;
-        LocalDateTime nowDateTime = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
-
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-
-        booking.setId(1L);
-        booking.setStart(nowDateTime.minusDays(20));
-        booking.setEnd(nowDateTime.minusDays(15));
-
-        booking2.setId(2L);
-        booking2.setStart(nowDateTime.minusDays(20));
-        booking2.setEnd(nowDateTime.minusDays(16));
-
-        List<Booking> bookings = Arrays.asList(booking, booking2);
+    public void testGetAllUserBookings_OffsetStartsAtPage() {
+        when(bookingRepository.findPage(any(BookingFilter.class))).thenReturn(List.of());
 
+        bookingService.getAllUserBookings(1L, "PAST", 15, 10, null);
 
-        when(bookingRepository.findAllByBookerAndEndIsBeforeOrderByStartDesc(
-                eq(user), any(LocalDateTime.class), eq(pageable)))
-                .thenReturn(bookings);
-
-        List<BookingForResponse> result = bookingService.getAllUserBookings(userId, state, from, size);
-
-        assertEquals(2, result.size());
-        assertEquals(1L, result.get(0).getId());
-        assertEquals(2L, result.get(1).getId());
+        BookingFilter filter = capturedFilter();
+        assertEquals(BookingState.PAST, filter.getState());
+        assertEquals(10, filter.getOffset());
+        assertEquals(10, filter.getLimit());
     }
 
     @Test
     public void testGetWaiting_Bookings() {
-        Long userId = 1L;
-        String state = "WAITING";
-        Integer from = 0;
-        Integer size = 10;
-        user.setId(userId);
-
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
-
-        List<Booking> bookings = new ArrayList<>();
-        booking.setStatus(WAITING);
-        booking2.setStatus(WAITING);
-        bookings.add(booking);
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-        when(bookingRepository.findAllByBookerAndStatusEqualsOrderByStartDesc(user,
-                Status.WAITING, pageable)).thenReturn(bookings);
-
-        List<BookingForResponse> bookingForResponses = bookingService.getAllUserBookings(userId, state, from, size);
-
-        verify(validationService).isExistUser(userId);
+        when(bookingRepository.findPage(any(BookingFilter.class))).thenReturn(List.of(booking));
 
-        verify(bookingRepository).findAllByBookerAndStatusEqualsOrderByStartDesc(user, Status.WAITING, pageable);
+        List<BookingForResponse> result = bookingService.getAllUserBookings(1L, "WAITING", 0, 10, null);
 
-        assertEquals(bookings.size(), bookingForResponses.size());
+        assertEquals(1, result.size());
+        assertEquals(BookingState.WAITING, capturedFilter().getState());
     }
 
     @Test
-    public void testGetRejected_Bookings() {
-        Long userId = 1L;
-        String state = "REJECTED";
-        Integer from = 0;
-        Integer size = 10;
-        user.setId(userId);
-
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
-        LocalDateTime nowDateTime = LocalDateTime.now();
-
-        List<Booking> bookings = new ArrayList<>();
+    public void testGetRejectedOwner_Bookings() {
         booking.setStatus(REJECTED);
-        booking2.setStatus(REJECTED);
-        bookings.add(booking);
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-        when(bookingRepository.findAllByBookerAndStatusEqualsOrderByStartDesc(user,
-                Status.REJECTED, pageable)).thenReturn(bookings);
+        when(bookingRepository.findPage(any(BookingFilter.class))).thenReturn(List.of(booking));
 
-        List<BookingForResponse> bookingForResponses = bookingService.getAllUserBookings(userId, state, from, size);
+        List<BookingForResponse> result = bookingService.getAllOwnerBookings(1L, "REJECTED", 0, 10, null);
 
-        verify(validationService).isExistUser(userId);
-
-        verify(bookingRepository).findAllByBookerAndStatusEqualsOrderByStartDesc(user, Status.REJECTED, pageable);
-
-        assertEquals(bookings.size(), bookingForResponses.size());
+        assertEquals(REJECTED, result.get(0).getStatus());
+        BookingFilter filter = capturedFilter();
+        assertEquals(BookingFilter.Role.OWNER, filter.getRole());
+        assertEquals(BookingState.REJECTED, filter.getState());
     }
 
     @Test
-    public void testGetAllOwnerBookings_AllState() {
-        Long userId = 1L;
-        String state = "ALL";
-        Integer from = 0;
-        Integer size = 10;
-        LocalDateTime nowDateTime = LocalDateTime.now();
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-
-        List<Booking> bookings = Arrays.asList(
-                booking, booking2
-        );
-        when(bookingRepository.findAllByItem_OwnerOrderByStartDesc(user, PageRequest.of(0, 10,
-                Sort.by("start"))))
-                .thenReturn(bookings);
+    public void testGetAllOwnerBookings_FutureState() {
+        when(bookingRepository.findPage(any(BookingFilter.class))).thenReturn(Arrays.asList(booking, booking2));
 
-        List<BookingForResponse> result = bookingService.getAllOwnerBookings(userId, state, from, size);
+        List<BookingForResponse> result = bookingService.getAllOwnerBookings(1L, "FUTURE", 0, 10, null);
 
+        verify(validationService).checkUserExists(1L);
         assertEquals(2, result.size());
-        assertEquals(1L, result.get(0).getId());
-        assertEquals(2L, result.get(1).getId());
+        BookingFilter filter = capturedFilter();
+        assertEquals(BookingFilter.Role.OWNER, filter.getRole());
+        assertEquals(BookingState.FUTURE, filter.getState());
     }
 
     @Test
-    public void testGetAllOwnerBookings_CurrentState() {
-        Long userId = 1L;
-        String state = "CURRENT";
-        int from = 0;
-        int size = 10;
-        LocalDateTime nowDateTime = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
-
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-
-        booking.setId(1L);
-        booking.setStatus(WAITING);
-
-        booking2.setId(2L);
-        booking2.setStatus(REJECTED);
-
-        List<Booking> bookings = Arrays.asList(booking, booking2);
-
-
-        when(bookingRepository.findAllByItem_OwnerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                eq(user), any(LocalDateTime.class), any(LocalDateTime.class), eq(pageable)))
-                .thenReturn(bookings);
-
-        List<BookingForResponse> result = bookingService.getAllOwnerBookings(userId, state, from, size);
+    public void testGetAllOwnerBookings_InvalidState() {
+        Assertions.assertThrows(ValidationException.class, () ->
+                bookingService.getAllOwnerBookings(1L, "UNSUPPORTED_STATUS", 0, 10, null));
 
-        assertEquals(2, result.size());
-        assertEquals(1L, result.get(0).getId());
-        assertEquals(2L, result.get(1).getId());
+        verify(bookingRepository, never()).findPage(any());
     }
 
     @Test
-    public void testGetAllOwnerBookings_PastState() {
-        Long userId = 1L;
-        String state = "PAST";
-        int from = 0;
-        int size = 10;
-        LocalDateTime nowDateTime = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
-
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-
-        booking.setId(1L);
-        booking.setStart(nowDateTime.minusDays(10));
-        booking.setEnd(nowDateTime.minusDays(8));
-        booking.setStatus(WAITING);
-
-        booking2.setId(2L);
-        booking2.setStart(nowDateTime.minusDays(9));
-        booking2.setEnd(nowDateTime.minusDays(5));
-        booking2.setStatus(REJECTED);
-
-        List<Booking> bookings = Arrays.asList(booking, booking2);
-
+    public void testGetAllUserBookings_AfterCursor() {
+        LocalDateTime cursorStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        String after = new BookingCursor(cursorStart, 5L).encode();
+        when(bookingRepository.findPage(any(BookingFilter.class))).thenReturn(List.of(booking, booking2));
 
-        when(bookingRepository.findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(
-                eq(user), any(LocalDateTime.class), eq(pageable)))
-                .thenReturn(bookings);
-
-        List<BookingForResponse> result = bookingService.getAllOwnerBookings(userId, state, from, size);
+        List<BookingForResponse> result = bookingService.getAllUserBookings(1L, "ALL", 20, 10, after);
 
         assertEquals(2, result.size());
-        assertEquals(1L, result.get(0).getId());
-        assertEquals(2L, result.get(1).getId());
+        BookingFilter filter = capturedFilter();
+        assertEquals(cursorStart, filter.getAfter().getStart());
+        assertEquals(5L, filter.getAfter().getId());
+        assertEquals(0, filter.getOffset());
     }
 
     @Test
-    public void testGetAllOwnerBookings_FutureState() {
-        Long userId = 1L;
-        String state = "FUTURE";
-        int from = 0;
-        int size = 10;
-        LocalDateTime nowDateTime = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
-
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-
-        booking.setId(1L);
-        booking.setStart(nowDateTime.plusDays(10));
-        booking.setEnd(nowDateTime.plusDays(15));
-        booking.setStatus(WAITING);
-
-        booking2.setId(2L);
-        booking2.setStart(nowDateTime.plusDays(9));
-        booking2.setEnd(nowDateTime.plusDays(16));
-        booking2.setStatus(REJECTED);
-
-        List<Booking> bookings = Arrays.asList(booking, booking2);
-
-
-        when(bookingRepository.findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(
-                eq(user), any(LocalDateTime.class), eq(pageable)))
-                .thenReturn(bookings);
-
-        List<BookingForResponse> result = bookingService.getAllOwnerBookings(userId, state, from, size);
-
-        assertEquals(2, result.size());
-        assertEquals(1L, result.get(0).getId());
-        assertEquals(2L, result.get(1).getId());
+    public void testGetAllOwnerBookings_AfterCursor() {
+        LocalDateTime cursorStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        String after = new BookingCursor(cursorStart, 5L).encode();
+        when(bookingRepository.findPage(any(BookingFilter.class))).thenReturn(List.of(booking));
+
+        List<BookingForResponse> result = bookingService.getAllOwnerBookings(1L, "WAITING", 0, 10, after);
+
+        assertEquals(1, result.size());
+        BookingFilter filter = capturedFilter();
+        assertEquals(BookingFilter.Role.OWNER, filter.getRole());
+        assertEquals(BookingState.WAITING, filter.getState());
+        assertEquals(5L, filter.getAfter().getId());
     }
 
     @Test
-    public void testGetWaitingOwner_Bookings() {
-        Long userId = 1L;
-        String state = "WAITING";
-        Integer from = 0;
-        Integer size = 10;
-        user.setId(userId);
-
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
-
-        List<Booking> bookings = new ArrayList<>();
-        booking.setStatus(WAITING);
-        booking2.setStatus(WAITING);
-        bookings.add(booking);
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-        when(bookingRepository.findAllByItem_OwnerAndStatusEqualsOrderByStartDesc(user,
-                Status.WAITING, pageable)).thenReturn(bookings);
-
-        List<BookingForResponse> bookingForResponses = bookingService.getAllOwnerBookings(userId, state, from, size);
-
-        verify(validationService).isExistUser(userId);
-
-        verify(bookingRepository).findAllByItem_OwnerAndStatusEqualsOrderByStartDesc(user, Status.WAITING, pageable);
-
-        assertEquals(bookings.size(), bookingForResponses.size());
+    public void testGetAllUserBookings_InvalidCursor() {
+        Assertions.assertThrows(ValidationException.class, () ->
+                bookingService.getAllUserBookings(1L, "ALL", 0, 10, "not-a-cursor"));
     }
 
-    @Test
-    public void testGetRejectedOwner_Bookings() {
-        Long userId = 1L;
-        String state = "REJECTED";
-        Integer from = 0;
-        Integer size = 10;
-        user.setId(userId);
-
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start"));
-
-        List<Booking> bookings = new ArrayList<>();
-        booking.setStatus(REJECTED);
-        booking2.setStatus(REJECTED);
-        bookings.add(booking);
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-        when(bookingRepository.findAllByItem_OwnerAndStatusEqualsOrderByStartDesc(user,
-                Status.REJECTED, pageable)).thenReturn(bookings);
-
-        List<BookingForResponse> bookingForResponses = bookingService.getAllOwnerBookings(userId, state, from, size);
-
-        verify(validationService).isExistUser(userId);
-
-        verify(bookingRepository).findAllByItem_OwnerAndStatusEqualsOrderByStartDesc(user, Status.REJECTED, pageable);
-
-        assertEquals(bookings.size(), bookingForResponses.size());
+    private BookingFilter capturedFilter() {
+        ArgumentCaptor<BookingFilter> filter = ArgumentCaptor.forClass(BookingFilter.class);
+        verify(bookingRepository).findPage(filter.capture());
+        return filter.getValue();
     }
 
-    @Test
-    public void testGetAllOwnerBookings_InvalidState() {
-        Long userId = 1L;
-        String state = "UNSUPPORTED_STATUS";
-        Integer from = 0;
-        Integer size = 10;
-
-        when(validationService.isExistUser(userId)).thenReturn(user);
-
-        Assertions.assertThrows(ValidationException.class, () -> {
-            bookingService.getAllOwnerBookings(userId, state, from, size);
-        });
+    private static BookingDecisionResult decision(Long bookingId, BookingDecisionResult.Outcome outcome,
+                                                  Status status) {
+        return BookingDecisionResult.builder().bookingId(bookingId).outcome(outcome).status(status).build();
     }
 
+    private static BookingStatusView statusView(Long id, Long itemId, Status status) {
+        return new BookingStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return 3L;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 1L;
+            }
+
+            @Override
+            public Status getStatus() {
+                return status;
+            }
+        };
+    }
 }
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.TimeRange;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ItemAvailabilityIndex availabilityIndex;
+    private Item item;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        availabilityIndex = new ItemAvailabilityIndex(bookingRepository, 100);
+        item = Item.builder().id(1L).build();
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void testHasConflict_LoadsBusyRangesOnce() {
+        when(bookingRepository.findBlockingBookings(eq(1L), eq(ItemAvailabilityIndex.BLOCKING_STATUSES), any()))
+                .thenReturn(List.of(booking(base, base.plusHours(2)), booking(base.plusHours(5), base.plusHours(6))));
+
+        assertTrue(availabilityIndex.hasConflict(1L, base.plusHours(1), base.plusHours(3)));
+        assertTrue(availabilityIndex.hasConflict(1L, base.minusHours(1), base.plusHours(7)));
+        assertFalse(availabilityIndex.hasConflict(1L, base.plusHours(2), base.plusHours(5)));
+        assertFalse(availabilityIndex.hasConflict(1L, base.minusHours(2), base));
+
+        verify(bookingRepository, times(1)).findBlockingBookings(eq(1L), any(), any());
+    }
+
+    @Test
+    void testRegister_AddsRangeToLoadedItem() {
+        when(bookingRepository.findBlockingBookings(eq(1L), any(), any())).thenReturn(List.of());
+        assertFalse(availabilityIndex.hasConflict(1L, base, base.plusHours(1)));
+
+        availabilityIndex.register(booking(base, base.plusHours(1)));
+        availabilityIndex.register(booking(base.plusHours(1), base.plusHours(3)));
+
+        assertTrue(availabilityIndex.hasConflict(1L, base.plusHours(2), base.plusHours(4)));
+        assertFalse(availabilityIndex.hasConflict(1L, base.plusHours(3), base.plusHours(4)));
+    }
+
+    @Test
+    void testEvict_ReloadsFromRepository() {
+        when(bookingRepository.findBlockingBookings(eq(1L), any(), any()))
+                .thenReturn(List.of(booking(base, base.plusHours(1))))
+                .thenReturn(List.of());
+        assertTrue(availabilityIndex.hasConflict(1L, base, base.plusHours(1)));
+
+        availabilityIndex.evict(1L);
+
+        assertFalse(availabilityIndex.hasConflict(1L, base, base.plusHours(1)));
+        verify(bookingRepository, times(2)).findBlockingBookings(eq(1L), any(), any());
+    }
+
+    @Test
+    void testRegister_DuringLoadIsNotLostFromIndex() {
+        Booking committed = booking(base, base.plusHours(1));
+        when(bookingRepository.findBlockingBookings(eq(1L), any(), any()))
+                .thenAnswer(invocation -> {
+                    availabilityIndex.register(committed);
+                    return List.of();
+                })
+                .thenReturn(List.of(committed));
+
+        assertFalse(availabilityIndex.hasConflict(1L, base, base.plusHours(1)));
+
+        assertTrue(availabilityIndex.hasConflict(1L, base, base.plusHours(1)));
+        assertTrue(availabilityIndex.hasConflict(1L, base, base.plusHours(1)));
+        verify(bookingRepository, times(2)).findBlockingBookings(eq(1L), any(), any());
+    }
+
+    @Test
+    void testBusyBetween_MergesAndClipsCachedRanges() {
+        when(bookingRepository.findBlockingBookings(eq(1L), any(), any())).thenReturn(List.of(
+                booking(base, base.plusHours(2)),
+                booking(base.plusHours(1), base.plusHours(3)),
+                booking(base.plusHours(5), base.plusHours(8))));
+
+        assertEquals(List.of(new TimeRange(base.plusHours(1), base.plusHours(3)),
+                        new TimeRange(base.plusHours(5), base.plusHours(6))),
+                availabilityIndex.busyBetween(1L, base.plusHours(1), base.plusHours(6)));
+        assertEquals(List.of(), availabilityIndex.busyBetween(1L, base.plusHours(3), base.plusHours(5)));
+        verify(bookingRepository, never()).findBlockingBookingsBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    void testBusyBetween_PastWindowUsesRangeQuery() {
+        LocalDateTime from = base.minusDays(10);
+        LocalDateTime to = base.minusDays(5);
+        when(bookingRepository.findBlockingBookingsBetween(1L, ItemAvailabilityIndex.BLOCKING_STATUSES, from, to))
+                .thenReturn(List.of(booking(from.minusHours(1), from.plusHours(1))));
+
+        assertEquals(List.of(new TimeRange(from, from.plusHours(1))), availabilityIndex.busyBetween(1L, from, to));
+        verify(bookingRepository, never()).findBlockingBookings(any(), any(), any());
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .item(item)
+                .start(start)
+                .end(end)
+                .status(Status.WAITING)
+                .build();
+    }
+}
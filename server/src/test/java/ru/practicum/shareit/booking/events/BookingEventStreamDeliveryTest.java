@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxMessage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the relay thread only queues events and that a stalled subscriber is closed
+ * without holding up the others.
+ */
+class BookingEventStreamDeliveryTest {
+    private static final long SLOW_USER_ID = 1L;
+    private static final long FAST_USER_ID = 2L;
+    private static final int BUFFER_SIZE = 2;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BookingEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = new BookingEventStream(meterRegistry, objectMapper, Duration.ofMinutes(1), Duration.ofHours(1),
+                BUFFER_SIZE, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        stream.shutdown();
+    }
+
+    @Test
+    void stalledSubscriberIsClosedWithoutBlockingRelay() throws Exception {
+        stream.subscribe(SLOW_USER_ID, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(builder);
+            }
+        });
+        Semaphore delivered = new Semaphore(0);
+        stream.subscribe(FAST_USER_ID, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                super.send(builder);
+                delivered.release();
+            }
+        });
+
+        assertTrue(delivered.tryAcquire(5, TimeUnit.SECONDS), "Fast subscriber was not greeted");
+
+        for (long bookingId = 1; bookingId <= BUFFER_SIZE + 1; bookingId++) {
+            OutboxMessage message = message(bookingId);
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> stream.handle(message));
+            assertTrue(delivered.tryAcquire(5, TimeUnit.SECONDS), "Fast subscriber missed event " + bookingId);
+        }
+
+        assertEquals(1, meterRegistry.get("bookings.events.subscribers").gauge().value());
+        assertEquals(1, meterRegistry.get("bookings.events.slow-subscribers").counter().count());
+    }
+
+    private OutboxMessage message(long bookingId) throws Exception {
+        BookingEvent event = BookingEvent.builder()
+                .type(BookingEvent.Type.CREATED)
+                .bookingId(bookingId)
+                .itemId(1L)
+                .ownerId(SLOW_USER_ID)
+                .bookerId(FAST_USER_ID)
+                .status(Status.WAITING)
+                .build();
+        return OutboxMessage.builder()
+                .id(bookingId)
+                .aggregateType(Outbox.BOOKING)
+                .aggregateId(bookingId)
+                .eventType(event.getType().name())
+                .payload(objectMapper.writeValueAsString(event))
+                .build();
+    }
+}
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports users and items over HTTP in both formats. The chunk size is small so every import spans several
+ * chunks; rejected rows are reported by number while the rest of their chunk is written.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-imports;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.h2.tcp-server.enabled=false",
+        "shareit.outbox.relay.enabled=false",
+        "shareit.import.chunk-size=3"
+})
+class BulkImportTest {
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ItemSearchIndex searchIndex;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from outbox");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru')");
+        jdbcTemplate.update("insert into requests (id, description, requester_id, created_date) "
+                + "values (1, 'Need a drill', 1, timestamp '2024-01-01 00:00:00')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("alter table users drop constraint if exists ck_import_test");
+    }
+
+    @Test
+    void usersImportFromNdjson() throws Exception {
+        String body = "{\"name\": \"Anna\", \"email\": \"anna@mail.ru\"}\n"
+                + "{\"name\": \"Anna again\", \"email\": \"anna@mail.ru\"}\n"
+                + "\n"
+                + "{\"name\": \"Owner\", \"email\": \"owner@mail.ru\"}\n"
+                + "{\"name\": \"Bad\", \"email\": \"not an email\"}\n"
+                + "{\"name\": \"Broken\"\n"
+                + "{\"name\": \"Boris\", \"email\": \"boris@mail.ru\"}\n"
+                + "{\"name\": \"\", \"email\": \"blank@mail.ru\"}\n"
+                + "{\"name\": \"Vera\", \"email\": \"vera@mail.ru\"}\n";
+
+        JsonNode report = post("/admin/imports/users", "application/x-ndjson", body, false);
+
+        assertEquals(8, report.get("rows").asLong());
+        assertEquals(3, report.get("imported").asLong());
+        assertEquals(5, report.get("failed").asLong());
+        assertEquals(List.of(2L, 4L, 5L, 6L, 8L), errorRows(report));
+        assertTrue(report.get("errors").get(0).get("message").asText().contains("anna@mail.ru"));
+        assertEquals(List.of("anna@mail.ru", "boris@mail.ru", "owner@mail.ru", "vera@mail.ru"),
+                jdbcTemplate.queryForList("select email from users order by email", String.class));
+    }
+
+    @Test
+    void usersRejectedByTheDatabaseFailAlone() throws Exception {
+        jdbcTemplate.update("alter table users add constraint ck_import_test check (name <> 'Rejected')");
+        String body = "name,email\r\n"
+                + "Anna,anna@mail.ru\r\n"
+                + "Rejected,rejected@mail.ru\r\n"
+                + "Boris,boris@mail.ru\r\n"
+                + "Vera,vera@mail.ru\r\n";
+
+        JsonNode report = post("/admin/imports/users", "text/csv", body, false);
+
+        assertEquals(3, report.get("imported").asLong());
+        assertEquals(List.of(2L), errorRows(report));
+        assertTrue(report.get("errors").get(0).get("message").asText().startsWith("Rejected by the database"));
+        assertEquals(4, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+    }
+
+    @Test
+    void itemsImportFromCsv() throws Exception {
+        searchIndex.search("cordless", 0, 10);
+        String body = "ownerId,name,description,available,requestId\r\n"
+                + "1,Drill,\"Cordless drill, 18V\",true,1\r\n"
+                + "1,Saw,Hand saw,false,\r\n"
+                + "2,Ladder,Owner does not exist,true,\r\n"
+                + "1,Hammer,Request does not exist,true,7\r\n"
+                + "1,,No name,true,\r\n"
+                + "1,Sander,\"Orbital sander\r\nwith dust bag\",true,\r\n"
+                + "1,Clamp,Bar clamp,yes please,\r\n"
+                + "1,Level\r\n";
+
+        JsonNode report = post("/admin/imports/items", "text/csv; charset=utf-8", body, false);
+
+        assertEquals(8, report.get("rows").asLong());
+        assertEquals(3, report.get("imported").asLong());
+        assertEquals(List.of(3L, 4L, 5L, 7L, 8L), errorRows(report));
+        assertEquals(List.of("Drill", "Saw", "Sander"),
+                jdbcTemplate.queryForList("select name from items order by id", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from items where request_id = 1", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "select count(*) from outbox where aggregate_type = 'item' and event_type = 'CREATED'",
+                Integer.class));
+        Long drillId = jdbcTemplate.queryForObject("select id from items where name = 'Drill'", Long.class);
+        assertEquals(List.of(drillId), searchIndex.search("cordless", 0, 10));
+    }
+
+    @Test
+    void gzipItemsImportFromNdjson() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            body.append("{\"ownerId\": 1, \"name\": \"Tool ").append(i)
+                    .append("\", \"description\": \"Tool\", \"available\": true}\n");
+        }
+
+        JsonNode report = post("/admin/imports/items", "application/x-ndjson", body.toString(), true);
+
+        assertEquals(10, report.get("imported").asLong());
+        assertEquals(0, report.get("failed").asLong());
+        assertEquals(10, jdbcTemplate.queryForObject("select count(*) from items", Integer.class));
+    }
+
+    @Test
+    void unsupportedContentTypeIsRejected() throws Exception {
+        HttpResponse<String> response = send("/admin/imports/users", "application/json", "[]", false);
+
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    void csvWithoutHeaderIsRejected() throws Exception {
+        HttpResponse<String> response = send("/admin/imports/users", "text/csv", "", false);
+
+        assertEquals(400, response.statusCode());
+    }
+
+    private List<Long> errorRows(JsonNode report) {
+        List<Long> rows = new ArrayList<>();
+        report.get("errors").forEach(error -> rows.add(error.get("row").asLong()));
+        return rows;
+    }
+
+    private JsonNode post(String path, String contentType, String body, boolean gzip) throws Exception {
+        HttpResponse<String> response = send(path, contentType, body, gzip);
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpResponse<String> send(String path, String contentType, String body, boolean gzip) throws Exception {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", contentType);
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            request.header("Content-Encoding", "gzip");
+        }
+        return httpClient.send(request.POST(HttpRequest.BodyPublishers.ofByteArray(bytes)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
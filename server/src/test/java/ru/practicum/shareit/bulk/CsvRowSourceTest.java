@@ -0,0 +1,58 @@
+package ru.practicum.shareit.bulk;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRowSourceTest {
+
+    @Test
+    void quotedValuesKeepSeparatorsQuotesAndLineBreaks() throws IOException {
+        CsvRowSource source = source("name,description\r\n"
+                + "\"Drill, cordless\",\"Says \"\"hi\"\"\nand more\"\r\n"
+                + "Saw,\n");
+
+        RawRow first = source.next();
+        assertEquals(1, first.getNumber());
+        assertEquals("Drill, cordless", first.getFields().get("name").asText());
+        assertEquals("Says \"hi\"\nand more", first.getFields().get("description").asText());
+        RawRow second = source.next();
+        assertEquals(2, second.getNumber());
+        assertFalse(second.getFields().has("description"));
+        assertNull(source.next());
+    }
+
+    @Test
+    void wrongValueCountIsAnErrorRow() throws IOException {
+        CsvRowSource source = source("name,description\nSaw\nDrill,Drill\n");
+
+        assertEquals("Expected 2 values, found 1", source.next().getError());
+        assertEquals("Drill", source.next().getFields().get("name").asText());
+    }
+
+    @Test
+    void unterminatedQuoteEndsTheInput() throws IOException {
+        CsvRowSource source = source("name,description\nSaw,\"never closed\nDrill,Drill\n");
+
+        RawRow broken = source.next();
+        assertEquals(1, broken.getNumber());
+        assertNull(broken.getFields());
+        assertNull(source.next());
+    }
+
+    @Test
+    void missingHeaderIsRejected() {
+        assertThrows(ValidationException.class, () -> source(""));
+    }
+
+    private static CsvRowSource source(String csv) throws IOException {
+        return new CsvRowSource(new StringReader(csv));
+    }
+}
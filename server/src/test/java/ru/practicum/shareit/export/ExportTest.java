@@ -0,0 +1,156 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports seeded tables over HTTP in both formats, whole and per owner, plain and gzip-compressed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:exports;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.h2.tcp-server.enabled=false"
+})
+class ExportTest {
+    private static final int ITEMS = 300;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from feedbacks");
+        jdbcTemplate.update("delete from bookings_archive");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru'), "
+                + "(2, 'other owner', 'other@mail.ru'), (3, 'booker', 'booker@mail.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, owner_id, is_available) "
+                + "select x, 'item ' || x, 'drill, \"cordless\"', mod(x, 2) + 1, true from system_range(1, ?)", ITEMS);
+        jdbcTemplate.update("insert into bookings (id, item_id, booker_id, start_time, end_time, status) values "
+                + "(1, 1, 3, timestamp '2030-01-01 10:00:00', timestamp '2030-01-02 10:00:00', 'APPROVED'), "
+                + "(2, 2, 3, timestamp '2030-01-03 10:00:00', timestamp '2030-01-04 10:00:00', 'WAITING')");
+        jdbcTemplate.update("insert into bookings_archive "
+                + "(id, item_id, booker_id, start_time, end_time, status, version, archived_at) values "
+                + "(3, 2, 3, timestamp '2020-01-01 10:00:00', timestamp '2020-01-02 10:00:00', 'APPROVED', 0, "
+                + "timestamp '2021-01-01 00:00:00')");
+        jdbcTemplate.update("insert into feedbacks (id, content, item_id, author_id, created_date) "
+                + "values (1, 'Great' || char(10) || 'drill', 2, 3, timestamp '2020-01-03 10:00:00')");
+    }
+
+    @Test
+    void itemsExportAsNdjson() throws Exception {
+        HttpResponse<InputStream> response = send("/admin/exports/items", false);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(header(response, "Content-Type").startsWith("application/x-ndjson"));
+        assertTrue(header(response, "Content-Disposition").contains("items.ndjson"));
+        List<JsonNode> rows = ndjson(read(response.body()));
+        assertEquals(ITEMS, rows.size());
+        JsonNode first = rows.get(0);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("drill, \"cordless\"", first.get("description").asText());
+        assertTrue(first.get("available").asBoolean());
+        assertEquals(2L, first.get("ownerId").asLong());
+        assertTrue(first.get("requestId").isNull());
+    }
+
+    @Test
+    void ownerSliceAsCsv() throws Exception {
+        HttpResponse<InputStream> response = send("/admin/exports/items?format=csv&ownerId=1", false);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(header(response, "Content-Type").startsWith("text/csv"));
+        String[] lines = read(response.body()).split("\r\n");
+        assertEquals(ITEMS / 2 + 1, lines.length);
+        assertEquals("id,name,description,available,ownerId,requestId", lines[0]);
+        assertEquals("2,item 2,\"drill, \"\"cordless\"\"\",true,1,", lines[1]);
+    }
+
+    @Test
+    void bookingsIncludeTheArchive() throws Exception {
+        List<JsonNode> rows = ndjson(read(send("/admin/exports/bookings?ownerId=1", false).body()));
+
+        assertEquals(2, rows.size());
+        assertEquals(2L, rows.get(0).get("id").asLong());
+        assertEquals("WAITING", rows.get(0).get("status").asText());
+        assertEquals("2030-01-03T10:00:00", rows.get(0).get("start").asText());
+        assertFalse(rows.get(0).get("archived").asBoolean());
+        assertEquals(3L, rows.get(1).get("id").asLong());
+        assertTrue(rows.get(1).get("archived").asBoolean());
+    }
+
+    @Test
+    void commentsExportQuotesLineBreaksInCsv() throws Exception {
+        String csv = read(send("/admin/exports/comments?format=csv", false).body());
+
+        assertEquals("id,itemId,authorId,text,created\r\n1,2,3,\"Great\ndrill\",2020-01-03T10:00:00\r\n", csv);
+    }
+
+    @Test
+    void gzipIsUsedWhenAccepted() throws Exception {
+        HttpResponse<InputStream> response = send("/admin/exports/items", true);
+
+        assertEquals("gzip", header(response, "Content-Encoding"));
+        assertEquals(ITEMS, ndjson(read(new GZIPInputStream(response.body()))).size());
+    }
+
+    @Test
+    void unknownFormatOrOwnerIsRejected() throws Exception {
+        assertEquals(400, send("/admin/exports/items?format=xml", false).statusCode());
+        assertEquals(404, send("/admin/exports/bookings?ownerId=99", false).statusCode());
+    }
+
+    private HttpResponse<InputStream> send(String path, boolean gzip) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private String header(HttpResponse<?> response, String name) {
+        return response.headers().firstValue(name).orElse("");
+    }
+
+    private String read(InputStream body) throws IOException {
+        try (body) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private List<JsonNode> ndjson(String body) throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        return rows;
+    }
+}
@@ -10,11 +10,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.availability.TimeRange;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CreateUpdateItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemForResponseDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -112,6 +114,30 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.name", is(item.getName()), String.class));
     }
 
+    @SneakyThrows
+    @Test
+    void testGetAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .busy(List.of(new TimeRange(from, from.plusDays(1))))
+                .free(List.of(new TimeRange(from.plusDays(1), to)))
+                .build();
+        when(itemService.getAvailability(2L, 1L, from, to)).thenReturn(availability);
+
+        mockMvc.perform(get("/items/{id}/availability", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00")
+                        .header("X-Sharer-User-Id", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy[0].end", is("2030-01-02T00:00:00")))
+                .andExpect(jsonPath("$.free[0].start", is("2030-01-02T00:00:00")))
+                .andExpect(jsonPath("$.free[0].end", is("2030-01-03T00:00:00")));
+    }
+
     @SneakyThrows
     @Test
     void testGetAllByUserId() {
@@ -129,7 +155,7 @@ public class ItemControllerTest {
     @SneakyThrows
     @Test
     void testSearchItems() {
-        when(itemService.searchItem(any(), eq("found one item")))
+        when(itemService.searchItem(any(), eq("found one item"), eq(0), eq(20)))
                 .thenReturn(List.of(itemForResponseDto));
 
         mockMvc.perform(get("/items/search")
@@ -138,7 +164,7 @@ public class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(List.of(itemForResponseDto))));
 
-        when(itemService.searchItem(eq(1L), eq("items not found")))
+        when(itemService.searchItem(eq(1L), eq("items not found"), eq(0), eq(20)))
                 .thenReturn(List.of());
 
         mockMvc.perform(get("/items/search")
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.events.ItemEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchDocument;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxMessage;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ItemSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ItemSearchIndex(itemRepository, objectMapper);
+        when(itemRepository.findAllSearchDocuments()).thenReturn(List.of(
+                new SearchDocument(1L, "Old drill", "Cordless Drill with battery", true),
+                new SearchDocument(2L, "Drill", "Hammer drill", true),
+                new SearchDocument(3L, "Saw", "Circular saw, no drill bits", true),
+                new SearchDocument(4L, "Drill press", "Heavy", false)
+        ));
+    }
+
+    @Test
+    void testSearch_RanksNameMatchesFirstAndSkipsUnavailable() {
+        assertEquals(List.of(2L, 1L, 3L), searchIndex.search("DRILL", 0, 10));
+        verify(itemRepository, times(1)).findAllSearchDocuments();
+    }
+
+    @Test
+    void testSearch_AppliesPaging() {
+        assertEquals(List.of(1L), searchIndex.search("drill", 1, 1));
+        assertTrue(searchIndex.search("drill", 3, 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_MissingTrigram() {
+        assertTrue(searchIndex.search("laptop", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_ShortQueryMatchesNothing() {
+        assertEquals(List.of(3L), searchIndex.search("saw", 0, 10));
+        assertTrue(searchIndex.search("sa", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testIndexAndRemove_UpdateLoadedIndex() {
+        searchIndex.search("drill", 0, 10);
+
+        searchIndex.index(Item.builder().id(3L).name("Saw").description("Circular saw").available(true).build());
+        searchIndex.index(Item.builder().id(5L).name("Laptop").description("Fast").available(true).build());
+        searchIndex.remove(2L);
+
+        assertEquals(List.of(1L), searchIndex.search("drill", 0, 10));
+        assertEquals(List.of(5L), searchIndex.search("laptop", 0, 10));
+    }
+
+    @Test
+    void testHandle_AppliesItemEventsFromOtherNodes() throws Exception {
+        searchIndex.search("drill", 0, 10);
+        when(itemRepository.findSearchDocumentById(5L))
+                .thenReturn(Optional.of(new SearchDocument(5L, "Laptop", "Fast", true)));
+        when(itemRepository.findSearchDocumentById(2L)).thenReturn(Optional.empty());
+
+        searchIndex.handle(message(ItemEvent.Type.CREATED, 5L));
+        searchIndex.handle(message(ItemEvent.Type.DELETED, 2L));
+        searchIndex.handle(message(ItemEvent.Type.COMMENTED, 1L));
+
+        assertEquals(List.of(1L, 3L), searchIndex.search("drill", 0, 10));
+        assertEquals(List.of(5L), searchIndex.search("laptop", 0, 10));
+        verify(itemRepository, never()).findSearchDocumentById(1L);
+    }
+
+    @Test
+    void testHandle_ReloadsTheItemInsteadOfTrustingTheEvent() throws Exception {
+        searchIndex.search("drill", 0, 10);
+        when(itemRepository.findSearchDocumentById(2L))
+                .thenReturn(Optional.of(new SearchDocument(2L, "Hammer", "Claw hammer", true)));
+
+        searchIndex.handle(message(ItemEvent.Type.CREATED, 2L));
+
+        assertEquals(List.of(1L, 3L), searchIndex.search("drill", 0, 10));
+        assertEquals(List.of(2L), searchIndex.search("hammer", 0, 10));
+    }
+
+    private OutboxMessage message(ItemEvent.Type type, Long itemId) throws Exception {
+        ItemEvent event = ItemEvent.builder().type(type).itemId(itemId).ownerId(1L).build();
+        return OutboxMessage.builder()
+                .id(itemId)
+                .aggregateType(Outbox.ITEM)
+                .aggregateId(itemId)
+                .eventType(type.name())
+                .payload(objectMapper.writeValueAsString(event))
+                .build();
+    }
+}
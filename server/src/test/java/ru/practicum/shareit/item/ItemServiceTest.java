@@ -7,6 +7,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.TimeRange;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -14,20 +19,29 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentView;
 import ru.practicum.shareit.item.comment.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateUpdateItemDto;
+import ru.practicum.shareit.item.events.ItemEvent;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemForResponseDto;
+import ru.practicum.shareit.item.dto.ItemShortView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.validation.ExistenceCache;
 import ru.practicum.shareit.validation.ValidationService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static ru.practicum.shareit.booking.model.Status.WAITING;
 
@@ -41,6 +55,18 @@ public class ItemServiceTest {
     private ValidationService validationService;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private ItemSearchIndex searchIndex;
+    @Mock
+    private ExistenceCache existenceCache;
+    @Mock
+    private ItemAvailabilityIndex availabilityIndex;
+    @Mock
+    private Outbox outbox;
     private User user1;
     private Item item, item2;
     private CreateUpdateItemDto createUpdateItemDto;
@@ -102,51 +128,46 @@ public class ItemServiceTest {
     @Test
     void testGetAllItemsWithBookings() {
         Long userId = 1L;
-
-        item.setId(1L);
-        item.setOwner(user1);
-        item.setBookings(Set.of(booking1));
-
-        item2.setId(2L);
-        item2.setOwner(user1);
-        item2.setBookings(Set.of(booking2));
-
-        List<Item> allItems = List.of(item, item2);
-
-        when(validationService.isExistUser(userId)).thenReturn(user1);
-        when(itemRepository.findAllByOwnerIdWithBookings(userId)).thenReturn(allItems);
+        ItemShortView itemView = itemView(1L);
+        ItemShortView itemView2 = itemView(2L);
+        BookingShortView last = bookingView(1L, 10L, BookingShortView.LAST);
+        BookingShortView next = bookingView(1L, 11L, BookingShortView.NEXT);
+        CommentView comment = mock(CommentView.class);
+        when(comment.getItemId()).thenReturn(2L);
+        when(comment.getText()).thenReturn("text");
+
+        when(itemRepository.findAllShortByOwnerId(userId)).thenReturn(List.of(itemView, itemView2));
+        when(bookingRepository.findLastAndNextApproved(eq(List.of(1L, 2L)), any())).thenReturn(List.of(last, next));
+        when(commentRepository.findAllViewsByItemIdIn(List.of(1L, 2L))).thenReturn(List.of(comment));
 
         List<ItemForResponseDto> result = itemService.getAllItems(userId);
 
         assertEquals(2, result.size());
         assertEquals(1L, result.get(0).getId());
+        assertEquals(10L, result.get(0).getLastBooking().getId());
+        assertEquals(11L, result.get(0).getNextBooking().getId());
+        assertTrue(result.get(0).getComments().isEmpty());
         assertEquals(2L, result.get(1).getId());
+        assertNull(result.get(1).getLastBooking());
+        assertEquals("text", result.get(1).getComments().get(0).getText());
 
-        verify(validationService).isExistUser(userId);
-        verify(itemRepository).findAllByOwnerIdWithBookings(userId);
+        verify(validationService).checkUserExists(userId);
+        verify(itemRepository).findAllShortByOwnerId(userId);
     }
 
     @Test
     void testGetAllItemsWithoutBookings() {
         Long userId = 1L;
 
-        item.setId(1L);
-        item.setOwner(user1);
-        item.setBookings(new HashSet<>());
-
-        item2.setId(2L);
-        item2.setOwner(user1);
-        item2.setBookings(new HashSet<>());
-
-        when(validationService.isExistUser(userId)).thenReturn(user1);
-        when(itemRepository.findAllByOwnerIdWithBookings(userId)).thenReturn(Collections.emptyList());
+        when(itemRepository.findAllShortByOwnerId(userId)).thenReturn(Collections.emptyList());
 
         List<ItemForResponseDto> result = itemService.getAllItems(userId);
 
         assertEquals(0, result.size());
 
-        verify(validationService).isExistUser(userId);
-        verify(itemRepository).findAllByOwnerIdWithBookings(userId);
+        verify(validationService).checkUserExists(userId);
+        verify(itemRepository).findAllShortByOwnerId(userId);
+        verifyNoInteractions(bookingRepository, commentRepository);
     }
 
     @Test
@@ -172,6 +193,8 @@ public class ItemServiceTest {
         verify(validationService).isExistUser(ownerId);
         verify(validationService).validateItemFields(item);
         verify(itemRepository).save(item);
+        verify(outbox).record(Outbox.ITEM, 1L, "CREATED", ItemEvent.builder()
+                .type(ItemEvent.Type.CREATED).itemId(1L).ownerId(ownerId).build());
     }
 
     @Test
@@ -202,6 +225,7 @@ public class ItemServiceTest {
         verify(validationService).isExistUser(ownerId);
         verify(validationService).isExistItem(1L);
         verify(itemRepository).save(updatedItem);
+        verify(existenceCache).evictItem(1L);
     }
 
     @Test
@@ -230,7 +254,6 @@ public class ItemServiceTest {
         item.setOwner(user1);
         item.setBookings(Set.of(booking1));
 
-        when(validationService.isExistUser(ownerId)).thenReturn(user1);
         when(validationService.isExistItem(itemId)).thenReturn(item);
 
         ItemForResponseDto result = itemService.getItemById(ownerId, itemId);
@@ -248,7 +271,6 @@ public class ItemServiceTest {
         item.setOwner(user1);
         item.setBookings(Set.of(booking1));
 
-        when(validationService.isExistUser(ownerId)).thenReturn(user1);
         when(validationService.isExistItem(itemId)).thenReturn(item);
 
         ItemForResponseDto result = itemService.getItemById(ownerId, itemId);
@@ -261,12 +283,16 @@ public class ItemServiceTest {
     public void testDeleteItem() {
         Long ownerId = 1L;
         Long itemId = 2L;
+        when(validationService.getItemOwnerId(itemId)).thenReturn(ownerId);
 
         itemService.deleteItem(ownerId, itemId);
 
-        verify(validationService).isExistUser(ownerId);
-        verify(validationService).isExistItem(itemId);
+        verify(validationService).checkUserExists(ownerId);
+        verify(validationService).getItemOwnerId(itemId);
         verify(itemRepository).deleteById(itemId);
+        verify(existenceCache).evictItem(itemId);
+        verify(outbox).record(Outbox.ITEM, itemId, "DELETED", ItemEvent.builder()
+                .type(ItemEvent.Type.DELETED).itemId(itemId).ownerId(ownerId).build());
     }
 
     @Test
@@ -274,10 +300,11 @@ public class ItemServiceTest {
         Long ownerId = 1L;
         String text = "";
 
-        List<ItemForResponseDto> result = itemService.searchItem(ownerId, text);
+        List<ItemForResponseDto> result = itemService.searchItem(ownerId, text, 0, 20);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
+        verifyNoInteractions(searchIndex);
     }
 
     @Test
@@ -290,13 +317,32 @@ public class ItemServiceTest {
         items.add(item);
         items.add(item2);
 
-        when(itemRepository.searchItems(text)).thenReturn(items);
+        when(searchIndex.search(text, 0, 20)).thenReturn(List.of(2L, 1L));
+        when(itemRepository.findAllById(List.of(2L, 1L))).thenReturn(items);
 
-        List<ItemForResponseDto> result = itemService.searchItem(ownerId, text);
+        List<ItemForResponseDto> result = itemService.searchItem(ownerId, text, 0, 20);
 
         assertNotNull(result);
         assertEquals(items.size(), result.size());
-        verify(itemRepository).searchItems(text);
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+        verify(commentRepository).findAllViewsByItemIdIn(Set.of(1L, 2L));
+    }
+
+    @Test
+    public void testSearchItemSkipsItemsDeletedElsewhere() {
+        when(searchIndex.search("name", 0, 20)).thenReturn(List.of(1L, 3L));
+        when(itemRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of(item));
+
+        List<ItemForResponseDto> result = itemService.searchItem(1L, "name", 0, 20);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    public void testSearchItemWithShortText() {
+        assertThrows(ValidationException.class, () -> itemService.searchItem(1L, "sa", 0, 20));
+        verifyNoInteractions(searchIndex);
     }
 
     @Test
@@ -327,7 +373,7 @@ public class ItemServiceTest {
 
         when(validationService.isExistUser(bookerId)).thenReturn(user1);
         when(validationService.isExistItem(itemId)).thenReturn(item);
-        when(validationService.isBookingByUser(user1, item)).thenReturn(true);
+        when(validationService.hasFinishedBooking(bookerId, itemId)).thenReturn(true);
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
 
         CommentDto result = itemService.createComment(bookerId, itemId, commentDto);
@@ -335,8 +381,9 @@ public class ItemServiceTest {
         assertNotNull(result);
         verify(validationService).isExistUser(bookerId);
         verify(validationService).isExistItem(itemId);
-        verify(validationService).isBookingByUser(user1, item);
+        verify(validationService).hasFinishedBooking(bookerId, itemId);
         verify(commentRepository).save(any(Comment.class));
+        verify(outbox).record(eq(Outbox.ITEM), eq(itemId), eq("COMMENTED"), any(ItemEvent.class));
     }
 
     @Test
@@ -348,10 +395,60 @@ public class ItemServiceTest {
 
         when(validationService.isExistUser(bookerId)).thenReturn(user1);
         when(validationService.isExistItem(itemId)).thenReturn(item);
-        when(validationService.isBookingByUser(user1, item)).thenReturn(false);
+        when(validationService.hasFinishedBooking(bookerId, itemId)).thenReturn(false);
 
         assertThrows(NotAvailableException.class, () -> {
             itemService.createComment(bookerId, itemId, commentDto);
         });
     }
+
+    @Test
+    void testGetAvailability_FreeRangesFillGaps() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        List<TimeRange> busy = List.of(new TimeRange(from, from.plusDays(1)),
+                new TimeRange(from.plusDays(3), from.plusDays(4)));
+        when(availabilityIndex.busyBetween(1L, from, to)).thenReturn(busy);
+
+        ItemAvailabilityDto availability = itemService.getAvailability(2L, 1L, from, to);
+
+        assertEquals(busy, availability.getBusy());
+        assertEquals(List.of(new TimeRange(from.plusDays(1), from.plusDays(3)), new TimeRange(from.plusDays(4), to)),
+                availability.getFree());
+        verify(validationService).checkUserExists(2L);
+        verify(validationService).getItemOwnerId(1L);
+    }
+
+    @Test
+    void testGetAvailability_DefaultWindow() {
+        when(availabilityIndex.busyBetween(eq(1L), any(), any())).thenReturn(List.of());
+
+        ItemAvailabilityDto availability = itemService.getAvailability(2L, 1L, null, null);
+
+        assertEquals(30, Duration.between(availability.getFrom(), availability.getTo()).toDays());
+        assertEquals(List.of(new TimeRange(availability.getFrom(), availability.getTo())), availability.getFree());
+    }
+
+    @Test
+    void testGetAvailability_InvalidRange() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(2L, 1L, from, from));
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(2L, 1L, from, from.plusYears(2)));
+        verify(availabilityIndex, never()).busyBetween(any(), any(), any());
+    }
+
+    private ItemShortView itemView(Long id) {
+        ItemShortView view = mock(ItemShortView.class);
+        when(view.getId()).thenReturn(id);
+        return view;
+    }
+
+    private BookingShortView bookingView(Long itemId, Long id, String kind) {
+        BookingShortView view = mock(BookingShortView.class);
+        when(view.getItemId()).thenReturn(itemId);
+        when(view.getId()).thenReturn(id);
+        when(view.getKind()).thenReturn(kind);
+        return view;
+    }
 }
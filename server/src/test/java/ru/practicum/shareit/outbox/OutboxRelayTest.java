@@ -0,0 +1,206 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.scheduling.JobLock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    @Mock
+    private OutboxRepository outboxRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private JobLock jobLock;
+
+    private final List<Long> handled = new ArrayList<>();
+    private final Set<Long> failing = new HashSet<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxSubscriber subscriber = new OutboxSubscriber() {
+            @Override
+            public boolean supports(String aggregateType) {
+                return Outbox.BOOKING.equals(aggregateType);
+            }
+
+            @Override
+            public void handle(OutboxMessage message) {
+                if (failing.contains(message.getId())) {
+                    throw new IllegalStateException("Subscriber failed");
+                }
+                handled.add(message.getId());
+            }
+        };
+        when(jobLock.getNodeId()).thenReturn("node-a");
+        relay = new OutboxRelay(outboxRepository, List.of(subscriber), new TransactionTemplate(transactionManager),
+                jobLock, meterRegistry, 10, 3, Duration.ofMinutes(1), Duration.ofSeconds(1), false);
+    }
+
+    @Test
+    void deliversInOrderWithoutDeletingMessages() {
+        when(outboxRepository.findAfter(anyLong(), any())).thenReturn(List.of(
+                message(1L, Outbox.BOOKING, 7L),
+                message(2L, Outbox.ITEM, 3L),
+                message(3L, Outbox.BOOKING, 8L),
+                message(4L, Outbox.BOOKING, 7L))).thenReturn(List.of());
+
+        relay.drain();
+        relay.drain();
+
+        assertEquals(List.of(1L, 3L, 4L), handled);
+        verify(outboxRepository).findAfter(eq(0L), any());
+        verify(outboxRepository).findAfter(eq(4L), any());
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        assertEquals(4, meterRegistry.counter("outbox.delivered").count());
+        assertEquals(0, meterRegistry.get("outbox.lag").timeGauge().value());
+    }
+
+    @Test
+    void startsOneCommitWindowBack() {
+        when(outboxRepository.findLastIdCreatedBefore(any())).thenReturn(42L);
+
+        relay.drain();
+
+        verify(outboxRepository).findAfter(eq(42L), any());
+    }
+
+    @Test
+    void failureHoldsBackOnlyTheSameAggregate() {
+        List<OutboxMessage> messages = List.of(
+                message(1L, Outbox.BOOKING, 7L),
+                message(2L, Outbox.BOOKING, 8L),
+                message(3L, Outbox.BOOKING, 7L));
+        when(outboxRepository.findAfter(anyLong(), any())).thenReturn(messages);
+        failing.add(1L);
+
+        relay.drain();
+
+        assertEquals(List.of(2L), handled);
+        assertEquals(1, meterRegistry.counter("outbox.failures").count());
+        assertTrue(meterRegistry.get("outbox.lag").timeGauge().value(TimeUnit.MILLISECONDS) > 0);
+
+        failing.clear();
+        relay.drain();
+
+        assertEquals(List.of(2L, 1L, 3L), handled);
+        verify(outboxRepository, times(2)).findAfter(eq(0L), any());
+        assertEquals(0, meterRegistry.get("outbox.lag").timeGauge().value());
+    }
+
+    @Test
+    void recentGapHoldsTheCursorUntilItIsFilled() {
+        when(outboxRepository.findAfter(anyLong(), any()))
+                .thenReturn(List.of(message(1L, Outbox.BOOKING, 7L), message(3L, Outbox.BOOKING, 8L)))
+                .thenReturn(List.of(message(2L, Outbox.BOOKING, 9L), message(3L, Outbox.BOOKING, 8L)))
+                .thenReturn(List.of());
+
+        relay.drain();
+        relay.drain();
+        relay.drain();
+
+        assertEquals(List.of(1L, 3L, 2L), handled);
+        verify(outboxRepository).findAfter(eq(0L), any());
+        verify(outboxRepository).findAfter(eq(1L), any());
+        verify(outboxRepository).findAfter(eq(3L), any());
+    }
+
+    @Test
+    void gapOlderThanCommitWindowIsSkipped() {
+        LocalDateTime settled = LocalDateTime.now().minusMinutes(2);
+        when(outboxRepository.findAfter(anyLong(), any()))
+                .thenReturn(List.of(message(1L, Outbox.BOOKING, 7L, settled), message(3L, Outbox.BOOKING, 8L, settled)))
+                .thenReturn(List.of());
+
+        relay.drain();
+        relay.drain();
+
+        assertEquals(List.of(1L, 3L), handled);
+        verify(outboxRepository).findAfter(eq(3L), any());
+    }
+
+    @Test
+    void fullBatchesAreDrainedUntilEmpty() {
+        List<OutboxMessage> full = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            full.add(message(id, Outbox.BOOKING, id));
+        }
+        when(outboxRepository.findAfter(anyLong(), any())).thenReturn(full)
+                .thenReturn(List.of(message(11L, Outbox.BOOKING, 1L)));
+
+        relay.drain();
+
+        assertEquals(11, handled.size());
+        verify(outboxRepository).findAfter(eq(0L), any());
+        verify(outboxRepository).findAfter(eq(10L), any());
+    }
+
+    @Test
+    void failingMessagesDoNotHideTheOnesBehindThem() {
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            messages.add(message(id, Outbox.BOOKING, id));
+            failing.add(id);
+        }
+        messages.add(message(13L, Outbox.BOOKING, 100L));
+        when(outboxRepository.findAfter(anyLong(), any())).thenReturn(messages.subList(0, 10))
+                .thenReturn(messages.subList(10, 13));
+
+        relay.drain();
+
+        assertEquals(List.of(13L), handled);
+        verify(outboxRepository).findAfter(eq(10L), any());
+        assertEquals(12, meterRegistry.counter("outbox.failures").count());
+    }
+
+    @Test
+    void exhaustedMessageIsMovedToDeadLetter() {
+        when(outboxRepository.findAfter(anyLong(), any()))
+                .thenReturn(List.of(message(1L, Outbox.BOOKING, 7L), message(2L, Outbox.BOOKING, 7L)));
+        failing.add(1L);
+
+        relay.drain();
+        relay.drain();
+        relay.drain();
+
+        assertEquals(List.of(2L), handled);
+        verify(outboxRepository).copyToDeadLetter(eq(1L), eq("node-a"), eq(3), any());
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        assertEquals(1, meterRegistry.counter("outbox.dead-lettered").count());
+    }
+
+    private OutboxMessage message(Long id, String aggregateType, Long aggregateId) {
+        return message(id, aggregateType, aggregateId, LocalDateTime.now().minusSeconds(1));
+    }
+
+    private OutboxMessage message(Long id, String aggregateType, Long aggregateId, LocalDateTime created) {
+        return OutboxMessage.builder()
+                .id(id)
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType("CREATED")
+                .payload("{}")
+                .created(created)
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.CreateUpdateItemDto;
+import ru.practicum.shareit.item.dto.ItemForResponseDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.scheduling.JobLock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Outbox rows are written with the change that caused them, reach subscribers after commit in write order,
+ * and disappear with a rolled back transaction. Every node's relay delivers every message, and only the purger
+ * removes them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.h2.tcp-server.enabled=false"
+})
+class OutboxTest {
+    private static final BlockingQueue<OutboxMessage> RECEIVED = new LinkedBlockingQueue<>();
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private JobLock jobLock;
+    @Autowired
+    private OutboxPurger outboxPurger;
+
+    @BeforeEach
+    void setUp() {
+        RECEIVED.clear();
+        jdbcTemplate.update("delete from outbox");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru')");
+    }
+
+    @Test
+    void committedChangesAreRelayedInOrder() throws Exception {
+        ItemForResponseDto item = itemService.createItem(1L, itemDto("Drill"));
+        itemService.updateItem(1L, item.getId(), itemDto("Hammer drill"));
+        itemService.deleteItem(1L, item.getId());
+
+        for (String expected : List.of("CREATED", "UPDATED", "DELETED")) {
+            OutboxMessage message = RECEIVED.poll(10, TimeUnit.SECONDS);
+            assertNotNull(message, expected);
+            assertEquals(expected, message.getEventType());
+            assertEquals(item.getId(), message.getAggregateId());
+            assertTrue(message.getPayload().contains("\"ownerId\":1"), message.getPayload());
+        }
+        assertEquals(3, countOutbox());
+    }
+
+    @Test
+    void everyNodeReceivesEveryMessage() throws Exception {
+        ItemForResponseDto item = itemService.createItem(1L, itemDto("Drill"));
+        itemService.updateItem(1L, item.getId(), itemDto("Hammer drill"));
+        for (int i = 0; i < 2; i++) {
+            assertNotNull(RECEIVED.poll(10, TimeUnit.SECONDS));
+        }
+
+        List<String> receivedOnOtherNode = new ArrayList<>();
+        OutboxSubscriber otherNodeSubscriber = new OutboxSubscriber() {
+            @Override
+            public boolean supports(String aggregateType) {
+                return Outbox.ITEM.equals(aggregateType);
+            }
+
+            @Override
+            public void handle(OutboxMessage message) {
+                receivedOnOtherNode.add(message.getEventType());
+            }
+        };
+        OutboxRelay otherNode = new OutboxRelay(outboxRepository, List.of(otherNodeSubscriber), transactionTemplate,
+                jobLock, new SimpleMeterRegistry(), 100, 10, Duration.ofMinutes(1), Duration.ofSeconds(1), false);
+        otherNode.drain();
+
+        assertEquals(List.of("CREATED", "UPDATED"), receivedOnOtherNode);
+        assertEquals(2, countOutbox());
+    }
+
+    @Test
+    void purgerDeletesOnlyExpiredMessages() {
+        jdbcTemplate.update("insert into outbox (aggregate_type, aggregate_id, event_type, payload, created_date) "
+                + "values ('item', 1, 'CREATED', '{}', now() - interval '2' hour)");
+        jdbcTemplate.update("insert into outbox (aggregate_type, aggregate_id, event_type, payload, created_date) "
+                + "values ('item', 1, 'UPDATED', '{}', now())");
+
+        assertEquals(1, outboxPurger.purge());
+        assertEquals(1, countOutbox());
+    }
+
+    @Test
+    void rolledBackChangesLeaveNoMessage() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.createItem(1L, itemDto("Drill"));
+            assertEquals(1, countOutbox());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, countOutbox());
+        assertNull(RECEIVED.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    private CreateUpdateItemDto itemDto(String name) {
+        return CreateUpdateItemDto.builder().name(name).description(name).available(true).build();
+    }
+
+    private int countOutbox() {
+        return jdbcTemplate.queryForObject("select count(*) from outbox", Integer.class);
+    }
+
+    @TestConfiguration
+    static class RecordingSubscriberConfig {
+        @Bean
+        OutboxSubscriber recordingSubscriber() {
+            return new OutboxSubscriber() {
+                @Override
+                public boolean supports(String aggregateType) {
+                    return Outbox.ITEM.equals(aggregateType);
+                }
+
+                @Override
+                public void handle(OutboxMessage message) {
+                    RECEIVED.add(message);
+                }
+            };
+        }
+    }
+}
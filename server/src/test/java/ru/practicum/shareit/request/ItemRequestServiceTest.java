@@ -9,8 +9,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestForResponse;
+import ru.practicum.shareit.request.events.ItemRequestEvent;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.validation.ValidationService;
@@ -33,6 +35,8 @@ public class ItemRequestServiceTest {
     private ValidationService validationService;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private Outbox outbox;
 
     @Test
     public void testAddItemRequest_ValidRequest_ReturnsItemRequestForResponse() {
@@ -63,6 +67,8 @@ public class ItemRequestServiceTest {
 
         verify(validationService, times(1)).isExistUser(requesterId);
         verify(itemRequestRepository, times(1)).saveAndFlush(any(ItemRequest.class));
+        verify(outbox).record(Outbox.REQUEST, 1L, "CREATED", ItemRequestEvent.builder()
+                .type(ItemRequestEvent.Type.CREATED).requestId(1L).requesterId(requesterId).build());
     }
 
     @Test
@@ -91,7 +97,6 @@ public class ItemRequestServiceTest {
                 ItemRequestForResponse.builder().id(2L).description("Request 2").build()
         );
 
-        when(validationService.isExistUser(requesterId)).thenReturn(userFromDb);
         when(itemRequestRepository.getAllByRequester_IdOrderByCreatedDesc(requesterId)).thenReturn(itemRequests);
 
         List<ItemRequestForResponse> actualResponse = itemRequestService.getItemRequestsByUserId(requesterId);
@@ -102,7 +107,7 @@ public class ItemRequestServiceTest {
             assertEquals(expectedResponse.get(i).getDescription(), actualResponse.get(i).getDescription());
         }
 
-        verify(validationService, times(1)).isExistUser(requesterId);
+        verify(validationService, times(1)).checkUserExists(requesterId);
         verify(itemRequestRepository, times(1)).getAllByRequester_IdOrderByCreatedDesc(requesterId);
     }
 
@@ -136,7 +141,6 @@ public class ItemRequestServiceTest {
 
         Pageable pageable = PageRequest.of(from / size, size);
 
-        when(validationService.isExistUser(userId)).thenReturn(userFromDb);
         when(itemRequestRepository.getItemRequestByRequesterIdIsNotOrderByCreated(userId, pageable)).thenReturn(itemRequests);
 
         List<ItemRequestForResponse> actualResponse = itemRequestService.getAllRequests(userId, from, size);
@@ -147,7 +151,7 @@ public class ItemRequestServiceTest {
             assertEquals(expectedResponse.get(i).getDescription(), actualResponse.get(i).getDescription());
         }
 
-        verify(validationService, times(1)).isExistUser(userId);
+        verify(validationService, times(1)).checkUserExists(userId);
         verify(itemRequestRepository, times(1)).getItemRequestByRequesterIdIsNotOrderByCreated(userId, pageable);
     }
 
@@ -170,7 +174,6 @@ public class ItemRequestServiceTest {
                 .description("Request 1")
                 .build();
 
-        when(validationService.isExistUser(userId)).thenReturn(userFromDb);
         when(itemRequestRepository.findById(requestId)).thenReturn(Optional.of(itemRequest));
 
         ItemRequestForResponse actualResponse = itemRequestService.getItemRequestById(userId, requestId);
@@ -178,7 +181,7 @@ public class ItemRequestServiceTest {
         assertEquals(expectedResponse.getId(), actualResponse.getId());
         assertEquals(expectedResponse.getDescription(), actualResponse.getDescription());
 
-        verify(validationService, times(1)).isExistUser(userId);
+        verify(validationService, times(1)).checkUserExists(userId);
         verify(itemRequestRepository, times(1)).findById(requestId);
     }
 
@@ -190,14 +193,13 @@ public class ItemRequestServiceTest {
         User userFromDb = new User();
         userFromDb.setId(userId);
 
-        when(validationService.isExistUser(userId)).thenReturn(userFromDb);
         when(itemRequestRepository.findById(requestId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> {
             itemRequestService.getItemRequestById(userId, requestId);
         });
 
-        verify(validationService, times(1)).isExistUser(userId);
+        verify(validationService, times(1)).checkUserExists(userId);
         verify(itemRequestRepository, times(1)).findById(requestId);
     }
 
@@ -227,7 +229,7 @@ public class ItemRequestServiceTest {
 
         itemRequestService.getItemRequestsByUserId(requesterId);
 
-        verify(validationService).isExistUser(requesterId);
+        verify(validationService).checkUserExists(requesterId);
         verify(itemRequestRepository).getAllByRequester_IdOrderByCreatedDesc(requesterId);
     }
 
@@ -242,7 +244,7 @@ public class ItemRequestServiceTest {
 
         List<ItemRequestForResponse> result = itemRequestService.getAllRequests(userId, from, size);
 
-        verify(validationService).isExistUser(userId);
+        verify(validationService).checkUserExists(userId);
         verify(itemRequestRepository).getItemRequestByRequesterIdIsNotOrderByCreated(userId, pageable);
         assertEquals(itemRequests.size(), result.size());
     }
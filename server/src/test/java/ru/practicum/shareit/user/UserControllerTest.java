@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.CreateUpdateUserDto;
@@ -18,6 +19,8 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
@@ -25,7 +28,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -106,7 +112,7 @@ public class UserControllerTest {
     @SneakyThrows
     @Test
     void getAllUsersFromStorage_whenInvoked_thenResponseStatusOkWithUserCollection() {
-        when(userService.getAllUsers())
+        when(userService.getAllUsers(0, 20, null))
                 .thenReturn(List.of(userDto));
 
         String result = mockMvc.perform(get("/users"))
@@ -118,6 +124,57 @@ public class UserControllerTest {
         assertEquals(objectMapper.writeValueAsString(List.of(userDto)), result);
     }
 
+    @SneakyThrows
+    @Test
+    void getAllUsers_WhenPageIsFull_ThenReturnNextCursor() {
+        when(userService.getAllUsers(0, 1, null))
+                .thenReturn(List.of(userDto));
+
+        mockMvc.perform(get("/users").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(userDto.getId())));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsers_WhenCursorGiven_ThenPageAfterIt() {
+        when(userService.getAllUsers(0, 20, 1L))
+                .thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/users").param("after", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(content().string("[]"));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsers_WhenSizeIsZero_ThenBadRequest() {
+        mockMvc.perform(get("/users").param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).getAllUsers(any(), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void streamAllUsers_ThenWriteNdjson() {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write((objectMapper.writeValueAsString(userDto) + "\n").getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userService).writeAllUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(userDto) + "\n"));
+    }
+
     @SneakyThrows
     @Test
     void getUserById() {
@@ -144,7 +201,7 @@ public class UserControllerTest {
     @SneakyThrows
     @Test
     void getAllUsersFromStorage_WhenNoUsers_ThenReturnEmptyList() {
-        when(userService.getAllUsers())
+        when(userService.getAllUsers(0, 20, null))
                 .thenReturn(Collections.emptyList());
 
         String result = mockMvc.perform(get("/users"))
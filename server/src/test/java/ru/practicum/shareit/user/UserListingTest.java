@@ -0,0 +1,98 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lists users over HTTP: cursor pages must cover every user exactly once, and the NDJSON stream must return
+ * every user in id order without being buffered for an ETag.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-listing;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.h2.tcp-server.enabled=false",
+        "shareit.users.stream.fetch-size=7"
+})
+class UserListingTest {
+    private static final int USERS = 50;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (id, name, email) "
+                + "select x, 'user ' || x, 'user' || x || '@mail.ru' from system_range(1, ?)", USERS);
+    }
+
+    @Test
+    void cursorPagesCoverAllUsers() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String query = "?size=20";
+        while (query != null) {
+            HttpResponse<String> response = send("/users" + query);
+            assertEquals(200, response.statusCode());
+            for (JsonNode user : objectMapper.readTree(response.body())) {
+                ids.add(user.get("id").asLong());
+            }
+            query = response.headers().firstValue("X-Next-Cursor").map(after -> "?size=20&after=" + after)
+                    .orElse(null);
+        }
+
+        assertEquals(USERS, ids.size());
+        assertEquals(1L, ids.get(0));
+        assertEquals(USERS, ids.get(USERS - 1));
+    }
+
+    @Test
+    void offsetPageSkipsWholePages() throws Exception {
+        JsonNode page = objectMapper.readTree(send("/users?from=45&size=20").body());
+
+        assertEquals(10, page.size());
+        assertEquals(41L, page.get(0).get("id").asLong());
+    }
+
+    @Test
+    void streamReturnsEveryUserAsOneLine() throws Exception {
+        HttpResponse<String> response = send("/users/stream");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("application/x-ndjson"));
+        assertFalse(response.headers().firstValue("ETag").isPresent());
+        String[] lines = response.body().split("\n");
+        assertEquals(USERS, lines.length);
+        for (int i = 0; i < USERS; i++) {
+            JsonNode user = objectMapper.readTree(lines[i]);
+            assertEquals(i + 1L, user.get("id").asLong());
+            assertEquals("user" + (i + 1) + "@mail.ru", user.get("email").asText());
+        }
+    }
+
+    private HttpResponse<String> send(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -1,11 +1,13 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exception.ConflictException;
@@ -15,15 +17,23 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.validation.ExistenceCache;
 import ru.practicum.shareit.validation.ValidationService;
 
 import javax.validation.ConstraintViolationException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +45,10 @@ public class UserServiceTest {
     private UserRepository userRepository;
     @Mock
     private ValidationService validationService;
+    @Mock
+    private ExistenceCache existenceCache;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     CreateUpdateUserDto userDto1, userDto2;
     User user1, user2;
@@ -65,9 +79,9 @@ public class UserServiceTest {
     @Test
     void getAllUsers_WhenUsersExist_ThenReturnListOfUsers() {
         List<User> users = List.of(user1, user2);
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findPage(0, 20)).thenReturn(users);
 
-        List<UserForResponseDto> usersForResponse = userService.getAllUsers();
+        List<UserForResponseDto> usersForResponse = userService.getAllUsers(0, 20, null);
 
         assertNotNull(usersForResponse);
         assertEquals(2, usersForResponse.size());
@@ -83,6 +97,44 @@ public class UserServiceTest {
         assertEquals(user2.getEmail(), userDto2.getEmail());
     }
 
+    @Test
+    void getAllUsers_WhenFromInsidePage_ThenReadWholePage() {
+        when(userRepository.findPage(20, 20)).thenReturn(List.of(user2));
+
+        List<UserForResponseDto> usersForResponse = userService.getAllUsers(25, 20, null);
+
+        assertEquals(1, usersForResponse.size());
+        assertEquals(user2.getId(), usersForResponse.get(0).getId());
+    }
+
+    @Test
+    void getAllUsers_WhenCursorGiven_ThenReadPageAfterIt() {
+        when(userRepository.findPageAfter(1L, 20)).thenReturn(List.of(user2));
+
+        List<UserForResponseDto> usersForResponse = userService.getAllUsers(0, 20, 1L);
+
+        assertEquals(1, usersForResponse.size());
+        assertEquals(user2.getId(), usersForResponse.get(0).getId());
+        verify(userRepository, never()).findPage(anyInt(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeAllUsers_ThenOneJsonLinePerUser() throws IOException {
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            action.accept(user1);
+            action.accept(user2);
+            return null;
+        }).when(userRepository).forEachUser(any(Consumer.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userService.writeAllUsers(out);
+
+        assertEquals("{\"id\":1,\"name\":\"user1\",\"email\":\"user1@ya.ru\"}\n"
+                + "{\"id\":2,\"name\":\"user2\",\"email\":\"user2@ya.ru\"}\n", out.toString(StandardCharsets.UTF_8));
+    }
+
     @Test
     void getUserById_WhenUserExist_ThenReturnUser() {
         when(validationService.isExistUser(user1.getId())).thenReturn(user1);
@@ -99,12 +151,11 @@ public class UserServiceTest {
     public void testRemoveUser() {
         Long userId = 1L;
 
-        when(validationService.isExistUser(userId)).thenReturn(user1);
-
         userService.removeUser(userId);
 
-        Mockito.verify(validationService).isExistUser(userId);
+        Mockito.verify(validationService).checkUserExists(userId);
         Mockito.verify(userRepository).deleteById(userId);
+        Mockito.verify(existenceCache).evictUser(userId);
     }
 
     @Test
@@ -147,6 +198,7 @@ public class UserServiceTest {
         assertEquals(expectedResponse, actualResponse);
         verify(validationService).isExistUser(userId);
         verify(userRepository).saveAndFlush(user1);
+        verify(existenceCache).evictUser(userId);
     }
 
     @Test
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.validation;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
+import ru.practicum.shareit.booking.archive.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotAvailableException;
@@ -18,12 +23,16 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.Optional;
-import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.booking.model.Status.WAITING;
 
@@ -39,6 +48,16 @@ public class ValidationServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Mock
+    private ItemAvailabilityIndex availabilityIndex;
+
+    @Spy
+    private ExistenceCache existenceCache =
+            new ExistenceCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
     @InjectMocks
     private ValidationService validationService;
 
@@ -118,6 +137,58 @@ public class ValidationServiceTest {
         assertEquals(user1, result);
     }
 
+    @Test
+    public void testCheckUserExists_CachesPositiveLookup() {
+        Long userId = 1L;
+        when(userRepository.existsById(userId)).thenReturn(true);
+
+        validationService.checkUserExists(userId);
+        validationService.checkUserExists(userId);
+
+        verify(userRepository, times(1)).existsById(userId);
+    }
+
+    @Test
+    public void testCheckUserExists_KnownFromFullLookup() {
+        Long userId = 1L;
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user1));
+
+        validationService.isExistUser(userId);
+        validationService.checkUserExists(userId);
+
+        verify(userRepository, never()).existsById(userId);
+    }
+
+    @Test
+    public void testCheckUserExists_WhenUserNotFound_ThrowsAndDoesNotCache() {
+        Long userId = 1L;
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> validationService.checkUserExists(userId));
+        assertThrows(NotFoundException.class, () -> validationService.checkUserExists(userId));
+
+        verify(userRepository, times(2)).existsById(userId);
+    }
+
+    @Test
+    public void testGetItemOwnerId_CachesOwner() {
+        Long itemId = 1L;
+        when(itemRepository.findOwnerIdById(itemId)).thenReturn(Optional.of(user1.getId()));
+
+        assertEquals(user1.getId(), validationService.getItemOwnerId(itemId));
+        assertEquals(user1.getId(), validationService.getItemOwnerId(itemId));
+
+        verify(itemRepository, times(1)).findOwnerIdById(itemId);
+    }
+
+    @Test
+    public void testGetItemOwnerId_WhenItemNotFound_ThrowsNotFoundException() {
+        Long itemId = 1L;
+        when(itemRepository.findOwnerIdById(itemId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> validationService.getItemOwnerId(itemId));
+    }
+
     @Test
     public void testIsExistBooking_ExistingBooking_ReturnsBooking() {
         Long bookingId = 1L;
@@ -159,6 +230,36 @@ public class ValidationServiceTest {
         assertThrows(NotFoundException.class, () -> validationService.isExistBooking(bookingId));
     }
 
+    @Test
+    public void testIsExistBookingOrArchived_ArchivedBooking_ReturnsBooking() {
+        Long bookingId = 1L;
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(archivedBookingRepository.findById(bookingId)).thenReturn(Optional.of(ArchivedBooking.builder()
+                .id(bookingId)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(item)
+                .booker(user2)
+                .status(WAITING)
+                .version(0L)
+                .build()));
+
+        Booking result = validationService.isExistBookingOrArchived(bookingId);
+
+        assertEquals(bookingId, result.getId());
+        assertEquals(item, result.getItem());
+        assertEquals(user2, result.getBooker());
+    }
+
+    @Test
+    public void testIsExistBookingOrArchived_WhenBookingNotFound_ThrowsNotFoundException() {
+        Long bookingId = 1L;
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(archivedBookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> validationService.isExistBookingOrArchived(bookingId));
+    }
+
     @Test
     public void testIsExistItem_WhenItemNotFound_ThrowsNotFoundException() {
         Long itemId = 1L;
@@ -225,22 +326,24 @@ public class ValidationServiceTest {
         LocalDateTime start = LocalDateTime.now().plusHours(1);
         LocalDateTime end = LocalDateTime.now().plusHours(2);
 
-        booking.setStart(start.minusHours(1));
-        booking.setEnd(start.plusMinutes(30));
+        createBookingDto.setStart(start);
+        createBookingDto.setEnd(end);
+        User booker = new User();
+        when(availabilityIndex.hasConflict(item.getId(), start, end)).thenReturn(true);
 
-        booking2.setStart(start.plusMinutes(45));
-        booking2.setEnd(end.plusMinutes(30));
+        assertThrows(NotAvailableException.class, () -> validationService.validateBooking(createBookingDto, item, booker));
+    }
 
-        Set<Booking> bookings = new HashSet<>();
-        bookings.add(booking);
-        bookings.add(booking2);
+    @Test
+    public void testValidateBooking_NoBookingsWithinBookingPeriod_NoExceptionThrown() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        LocalDateTime end = LocalDateTime.now().plusHours(2);
 
         createBookingDto.setStart(start);
         createBookingDto.setEnd(end);
-        item.setBookings(bookings);
-        User booker = new User();
+        when(availabilityIndex.hasConflict(item.getId(), start, end)).thenReturn(false);
 
-        assertThrows(NotAvailableException.class, () -> validationService.validateBooking(createBookingDto, item, booker));
+        assertDoesNotThrow(() -> validationService.validateBooking(createBookingDto, item, user2));
     }
 
     @Test
@@ -281,38 +384,35 @@ public class ValidationServiceTest {
     }
 
     @Test
-    public void testIsBookingByUser_BookingsExist_ReturnsTrue() {
-        booking.setBooker(user1);
-        booking.setEnd(LocalDateTime.now().minusDays(1));
-        booking2.setBooker(user1);
-        booking2.setEnd(LocalDateTime.now().minusHours(2));
-        item.setBookings(Set.of(booking, booking2));
+    public void testHasFinishedBooking_FinishedBookingExists_ReturnsTrue() {
+        when(bookingRepository.existsFinished(eq(item.getId()), eq(user1.getId()), any())).thenReturn(true);
 
-        boolean result = validationService.isBookingByUser(user1, item);
-
-        assertTrue(result);
+        assertTrue(validationService.hasFinishedBooking(user1.getId(), item.getId()));
     }
 
     @Test
-    public void testIsBookingByUser_NoBookingsExist_ReturnsFalse() {
-        item.setBookings(new HashSet<>());
-        boolean result = validationService.isBookingByUser(user2, item);
+    public void testHasFinishedBooking_NoFinishedBooking_ReturnsFalse() {
+        when(bookingRepository.existsFinished(eq(item.getId()), eq(user2.getId()), any())).thenReturn(false);
 
-        assertFalse(result);
+        assertFalse(validationService.hasFinishedBooking(user2.getId(), item.getId()));
     }
 
     @Test
-    public void testIsBookingByUser_BookingsExistButNotByUser_ReturnsFalse() {
-        booking.setBooker(user1);
-        booking.setEnd(LocalDateTime.now().minusDays(1));
-        booking2.setBooker(user1);
-        booking2.setEnd(LocalDateTime.now().minusHours(2));
+    public void testHasFinishedBooking_PositiveAnswerIsCached() {
+        when(bookingRepository.existsFinished(eq(item.getId()), eq(user1.getId()), any())).thenReturn(true);
+
+        assertTrue(validationService.hasFinishedBooking(user1.getId(), item.getId()));
+        assertTrue(validationService.hasFinishedBooking(user1.getId(), item.getId()));
 
-        item.setBookings(Set.of(booking, booking2));
+        verify(bookingRepository, times(1)).existsFinished(eq(item.getId()), eq(user1.getId()), any());
+    }
 
-        boolean result = validationService.isBookingByUser(user2, item);
+    @Test
+    public void testHasFinishedBooking_NegativeAnswerIsNotCached() {
+        when(bookingRepository.existsFinished(eq(item.getId()), eq(user2.getId()), any())).thenReturn(false, true);
 
-        assertFalse(result);
+        assertFalse(validationService.hasFinishedBooking(user2.getId(), item.getId()));
+        assertTrue(validationService.hasFinishedBooking(user2.getId(), item.getId()));
     }
 
 